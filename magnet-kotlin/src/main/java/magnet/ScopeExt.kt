@@ -28,6 +28,10 @@ inline fun <reified T> Scope.getSingle(classifier: String = Classifier.NONE): T
 inline fun <reified T> Scope.getMany(classifier: String = Classifier.NONE): List<T> =
     this.getMany(T::class.java, classifier)
 
+/** Returns a list of objects, which are created on their first access, or empty list, if no objects were found. */
+inline fun <reified T> Scope.getManyLazily(classifier: String = Classifier.NONE): List<T> =
+    this.getManyLazily(T::class.java, classifier)
+
 /** Bind given instance into this scope. */
 inline fun <reified T : Any> Scope.bind(instance: T, classifier: String = Classifier.NONE) =
     this.bind(T::class.java, instance, classifier)
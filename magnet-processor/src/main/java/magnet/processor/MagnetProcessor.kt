@@ -31,6 +31,13 @@ import javax.lang.model.util.Elements
 import javax.lang.model.util.Types
 import javax.tools.Diagnostic
 
+/**
+ * Name prefix of generated instance dispatchers. When the option is set, factories
+ * of each package are generated into a single dispatcher class named
+ * `<prefix>MagnetDispatcher` instead of a class per factory.
+ */
+const val OPTION_DISPATCHER = "magnet.dispatcher"
+
 @SupportedSourceVersion(SourceVersion.RELEASE_11)
 class MagnetProcessor : AbstractProcessor() {
 
@@ -66,6 +73,10 @@ class MagnetProcessor : AbstractProcessor() {
         }
     }
 
+    override fun getSupportedOptions(): MutableSet<String> {
+        return mutableSetOf(OPTION_DISPATCHER)
+    }
+
     override fun getSupportedAnnotationTypes(): MutableSet<String> {
         return mutableSetOf(
             Instance::class.java.name,
@@ -83,6 +94,7 @@ class MagnetProcessorEnv(
     val elements: Elements get() = processEnvironment.elementUtils
     val types: Types get() = processEnvironment.typeUtils
     val annotation = AnnotationValueExtractor(elements)
+    val options: Map<String, String> get() = processEnvironment.options
 
     fun reportError(e: ValidationException) {
         processEnvironment.messager.printMessage(Diagnostic.Kind.ERROR, e.message, e.element)
@@ -84,6 +84,9 @@ class AnnotationValueExtractor(
         return this.value as String
     }
 
+    fun getStringValues(value: AnnotationValue): List<String> =
+        (value.value as List<*>).map { getStringValue(it as AnnotationValue) }
+
     fun getTypeElement(value: AnnotationValue): TypeElement {
         this.value = null
         value.accept(this, null)
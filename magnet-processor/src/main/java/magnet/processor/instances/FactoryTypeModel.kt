@@ -38,7 +38,7 @@ interface FactoryTypeVisitor {
     fun exitSiblingTypesMethod(method: GetSiblingTypesMethod) {}
 
     fun enterGetSelectorMethod(method: GetSelectorMethod) {}
-    fun visitSelectorArgument(argument: String) {}
+    fun visitSelectorExpression(expression: SelectorExpression) {}
     fun exitGetSelectorMethod(method: GetSelectorMethod) {}
 
     fun exitFactoryClass(factory: FactoryType) {}
@@ -61,6 +61,11 @@ class FactoryType(
     val getSelectorMethod: GetSelectorMethod?,
     val getSiblingTypesMethod: GetSiblingTypesMethod?
 ) {
+    /* Custom factories and static methods not annotated as not-null may provide no instance. */
+    val nullable: Boolean
+        get() = customFactoryType != null ||
+            createStatement is StaticMethodCreateStatement && !createStatement.returnsNotNull
+
     fun accept(visitor: FactoryTypeVisitor) {
         visitor.enterFactoryClass(this)
         createMethod.accept(visitor)
@@ -80,7 +85,8 @@ class TypeCreateStatement(
 
 class StaticMethodCreateStatement(
     val staticMethodClassName: ClassName,
-    val staticMethodName: String
+    val staticMethodName: String,
+    val returnsNotNull: Boolean = false
 ) : CreateStatement()
 
 class CreateMethod(
@@ -140,12 +146,23 @@ class GetSiblingTypesMethod(val siblingTypes: List<ClassName>) {
     }
 }
 
-class GetSelectorMethod(val selectorArguments: List<String>) {
+class GetSelectorMethod(val expression: SelectorExpression) {
     fun accept(visitor: FactoryTypeVisitor) {
         visitor.enterGetSelectorMethod(this)
-        for (argument in selectorArguments) {
-            visitor.visitSelectorArgument(argument)
-        }
+        visitor.visitSelectorExpression(expression)
         visitor.exitGetSelectorMethod(this)
     }
 }
+
+sealed class SelectorExpression {
+    data class Clause(
+        val filter: String,
+        val key: String,
+        val operator: String,
+        val operands: List<String>
+    ) : SelectorExpression()
+
+    data class And(val expressions: List<SelectorExpression>) : SelectorExpression()
+    data class Or(val expressions: List<SelectorExpression>) : SelectorExpression()
+    data class Not(val expression: SelectorExpression) : SelectorExpression()
+}
@@ -1,9 +1,12 @@
 package magnet.processor.instances
 
+import com.squareup.javapoet.ClassName
 import magnet.Instance
 import magnet.processor.MagnetProcessorEnv
+import magnet.processor.OPTION_DISPATCHER
 import magnet.processor.instances.aspects.index.FactoryIndexCodeGenerator
 import magnet.processor.instances.generator.CodeWriter
+import magnet.processor.instances.generator.DispatcherCodeGenerator
 import magnet.processor.instances.generator.FactoryTypeCodeGenerator
 import magnet.processor.instances.parser.InstanceParserForClass
 import magnet.processor.instances.parser.InstanceParserForMethod
@@ -18,6 +21,9 @@ class InstanceProcessor(
     private val factoryFromMethodAnnotationParser = InstanceParserForMethod(env)
     private val factoryTypeCodeGenerator = FactoryTypeCodeGenerator()
     private val factoryIndexCodeGenerator = FactoryIndexCodeGenerator()
+    private val dispatcherCodeGenerator = DispatcherCodeGenerator()
+    private val dispatcherName: String? = env.options[OPTION_DISPATCHER]
+    private val dispatchersByPackage = mutableMapOf<String, Int>()
 
     fun process(roundEnv: RoundEnvironment): Boolean {
 
@@ -46,18 +52,44 @@ class InstanceProcessor(
 
         factoryTypes.sortBy { factoryName(it) }
 
+        val dispatchedFactoryTypes =
+            if (dispatcherName == null) emptyList()
+            else factoryTypes.filter { it.isDispatchable() }
+
         val codeWriters = mutableListOf<CodeWriter>()
         factoryTypes.forEach { factoryType ->
-            codeWriters.add(factoryTypeCodeGenerator.generateFrom(factoryType))
-            codeWriters.add(factoryIndexCodeGenerator.generateFrom(factoryType))
+            if (dispatcherName == null || !factoryType.isDispatchable()) {
+                codeWriters.add(factoryTypeCodeGenerator.generateFrom(factoryType))
+                codeWriters.add(factoryIndexCodeGenerator.generateFrom(factoryType))
+            }
         }
 
+        dispatchedFactoryTypes
+            .groupBy { it.factoryType.packageName() }
+            .forEach { (packageName, packageFactoryTypes) ->
+                val dispatcherClassName = nextDispatcherClassName(packageName)
+                codeWriters.add(dispatcherCodeGenerator.generate(dispatcherClassName, packageFactoryTypes))
+                codeWriters.add(factoryIndexCodeGenerator.generateFrom(dispatcherClassName, packageFactoryTypes))
+            }
+
         codeWriters.forEach { codeWriter ->
             codeWriter.writeInto(env.filer)
         }
 
         return true
     }
+
+    /* Dispatchers of later processing rounds get a number to keep their names unique. */
+    private fun nextDispatcherClassName(packageName: String): ClassName {
+        val round = dispatchersByPackage.getOrDefault(packageName, 0) + 1
+        dispatchersByPackage[packageName] = round
+        val suffix = if (round == 1) "" else round.toString()
+        return ClassName.get(packageName, "${dispatcherName}MagnetDispatcher$suffix")
+    }
 }
 
+/* Custom factories and sibling types rely on a class per factory. */
+private fun FactoryType.isDispatchable(): Boolean =
+    customFactoryType == null && getSiblingTypesMethod == null
+
 private fun factoryName(factoryType: FactoryType): String = factoryType.factoryType.simpleName()
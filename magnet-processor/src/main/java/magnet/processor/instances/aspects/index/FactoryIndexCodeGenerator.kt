@@ -21,6 +21,7 @@ import com.squareup.javapoet.ClassName
 import com.squareup.javapoet.TypeSpec
 import magnet.internal.Generated
 import magnet.internal.Index
+import magnet.internal.InstanceDispatcher
 import magnet.internal.InstanceFactory
 import magnet.processor.instances.generator.CodeGenerator
 import magnet.processor.instances.generator.CodeWriter
@@ -48,7 +49,8 @@ class FactoryIndexCodeGenerator : FactoryTypeVisitor, CodeGenerator {
                 generateFactoryIndexAnnotation(
                     factory.factoryType,
                     factory.interfaceType.reflectionName(),
-                    factory.classifier
+                    factory.classifier,
+                    factory.getLimitMethod?.limit
                 )
             )
             .build()
@@ -57,18 +59,50 @@ class FactoryIndexCodeGenerator : FactoryTypeVisitor, CodeGenerator {
     private fun generateFactoryIndexAnnotation(
         factoryClassName: ClassName,
         instanceType: String,
-        classifier: String
+        classifier: String,
+        limit: String?
     ): AnnotationSpec {
-        return AnnotationSpec.builder(Index::class.java)
+        val builder = AnnotationSpec.builder(Index::class.java)
             .addMember("factoryType", "\$T.class", InstanceFactory::class.java)
             .addMember("factoryClass", "\$T.class", factoryClassName)
             .addMember("instanceType", "\$S", instanceType)
             .addMember("classifier", "\$S", classifier)
-            .build()
+        if (limit != null) {
+            builder.addMember("limit", "\$S", limit)
+        }
+        return builder.build()
     }
 
     override fun generateFrom(factoryType: FactoryType): CodeWriter {
         factoryType.accept(this)
         return CodeWriter(factoryIndexClassName.packageName(), factoryIndexTypeSpec)
     }
+
+    fun generateFrom(dispatcherClassName: ClassName, factoryTypes: List<FactoryType>): CodeWriter {
+        val dispatcherPackage = dispatcherClassName.packageName()
+        val dispatcherName = dispatcherClassName.simpleName()
+        val dispatcherIndexClassName =
+            ClassName.get("magnet.index", "${dispatcherPackage.replace('.', '_')}_$dispatcherName")
+
+        val annotation = AnnotationSpec.builder(Index::class.java)
+            .addMember("factoryType", "\$T.class", InstanceDispatcher::class.java)
+            .addMember("factoryClass", "\$T.class", dispatcherClassName)
+            .addMember("instanceType", "\$S", "")
+            .addMember("classifier", "\$S", "")
+        factoryTypes.forEach {
+            annotation
+                .addMember("instanceTypes", "\$S", it.interfaceType.reflectionName())
+                .addMember("classifiers", "\$S", it.classifier)
+                .addMember("limits", "\$S", it.getLimitMethod?.limit ?: "")
+        }
+
+        val typeSpec = TypeSpec
+            .classBuilder(dispatcherIndexClassName)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addAnnotation(Generated::class.java)
+            .addAnnotation(annotation.build())
+            .build()
+
+        return CodeWriter(dispatcherIndexClassName.packageName(), typeSpec)
+    }
 }
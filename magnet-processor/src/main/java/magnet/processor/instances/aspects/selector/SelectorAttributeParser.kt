@@ -1,6 +1,7 @@
 package magnet.processor.instances.aspects.selector
 
 import magnet.processor.common.ValidationException
+import magnet.processor.instances.SelectorExpression
 import magnet.processor.instances.parser.AttributeParser
 import magnet.processor.instances.parser.ParserInstance
 import javax.lang.model.element.AnnotationValue
@@ -11,36 +12,112 @@ object SelectorAttributeParser : AttributeParser("selector") {
     override fun <E : Element> Scope<E>.parse(value: AnnotationValue): ParserInstance<E> =
         instance.copy(selector = parse(value.value.toString()))
 
-    private fun <E : Element> Scope<E>.parse(selector: String): List<String>? {
+    private fun <E : Element> Scope<E>.parse(selector: String): SelectorExpression? {
         if (selector.isEmpty()) return null
 
-        val parsedSelector = selector.split(DELIMITER)
-        var isSelectorInvalid: Boolean = parsedSelector.size < 4 ||
-            parsedSelector[0].isEmpty() ||
-            parsedSelector[1].isEmpty() ||
-            parsedSelector[2] !in OPERATORS ||
-            parsedSelector[3].isEmpty()
-
-        if (!isSelectorInvalid) {
-            isSelectorInvalid = when (parsedSelector[2]) {
-                "in", "!in" -> parsedSelector.size != 5
-                else -> parsedSelector.size != 4
-            }
-        }
-
-        if (isSelectorInvalid) {
-            throw ValidationException(
+        return ExpressionReader(selector).readExpression()
+            ?: throw ValidationException(
                 element = element,
                 message = "Invalid selector. Expected format:" +
                     " '[selector id].[selector field] [comparison operator] [value]'." +
                     " Supported comparison operators: $OPERATORS." +
-                    " Example selectors: 'android.api >= 28', 'android.api in 0..24'"
+                    " Operators $INTEGER_OPERATORS require integer values in '$ANDROID_FILTER' selectors." +
+                    " Selectors can be combined using '&&', '||', '!' and parentheses." +
+                    " Example selectors: 'android.api >= 28', 'android.api in 0..24'," +
+                    " 'android.api >= 26 && features.newPipeline == true'"
             )
+    }
+}
+
+/** Recursive descent reader of selector expressions. Returns null for invalid expressions. */
+private class ExpressionReader(private val selector: String) {
+
+    private var position = 0
+
+    fun readExpression(): SelectorExpression? {
+        val expression = readOr() ?: return null
+        skipWhitespace()
+        return if (position == selector.length) expression else null
+    }
+
+    private fun readOr(): SelectorExpression? {
+        val expressions = mutableListOf(readAnd() ?: return null)
+        while (consume("||")) {
+            expressions.add(readAnd() ?: return null)
+        }
+        return if (expressions.size == 1) expressions[0] else SelectorExpression.Or(expressions)
+    }
+
+    private fun readAnd(): SelectorExpression? {
+        val expressions = mutableListOf(readUnary() ?: return null)
+        while (consume("&&")) {
+            expressions.add(readUnary() ?: return null)
+        }
+        return if (expressions.size == 1) expressions[0] else SelectorExpression.And(expressions)
+    }
+
+    private fun readUnary(): SelectorExpression? = when {
+        consume("!") -> readUnary()?.let { SelectorExpression.Not(it) }
+        consume("(") -> readOr()?.takeIf { consume(")") }
+        else -> readClause()
+    }
+
+    private fun readClause(): SelectorExpression.Clause? {
+        val start = position
+        while (position < selector.length && !isClauseEnd()) position++
+        return parseClause(selector.substring(start, position).trim())
+    }
+
+    private fun isClauseEnd(): Boolean =
+        selector.startsWith("&&", position) ||
+            selector.startsWith("||", position) ||
+            selector[position] == '(' ||
+            selector[position] == ')'
+
+    private fun consume(token: String): Boolean {
+        skipWhitespace()
+        if (!selector.startsWith(token, position)) return false
+        position += token.length
+        return true
+    }
+
+    private fun skipWhitespace() {
+        while (position < selector.length && selector[position].isWhitespace()) position++
+    }
+}
+
+private fun parseClause(clause: String): SelectorExpression.Clause? {
+    val parsedSelector = clause.split(DELIMITER)
+    var isSelectorInvalid: Boolean = parsedSelector.size < 4 ||
+        parsedSelector[0].isEmpty() ||
+        parsedSelector[1].isEmpty() ||
+        parsedSelector[2] !in OPERATORS ||
+        parsedSelector[3].isEmpty()
+
+    if (!isSelectorInvalid) {
+        isSelectorInvalid = when (parsedSelector[2]) {
+            "in", "!in" -> parsedSelector.size != 5
+            else -> parsedSelector.size != 4
         }
+    }
 
-        return parsedSelector
+    if (!isSelectorInvalid && parsedSelector[0] == ANDROID_FILTER && parsedSelector[2] in INTEGER_OPERATORS) {
+        isSelectorInvalid = parsedSelector.drop(3).any { it.toIntOrNull() == null }
     }
+
+    if (isSelectorInvalid) return null
+
+    return SelectorExpression.Clause(
+        filter = parsedSelector[0],
+        key = parsedSelector[1],
+        operator = parsedSelector[2],
+        operands = parsedSelector.subList(3, parsedSelector.size)
+    )
 }
 
 private val DELIMITER = Regex("[\\s|.]+")
 private val OPERATORS = arrayListOf(">", "<", ">=", "<=", "==", "!=", "in", "!in")
+private val INTEGER_OPERATORS = arrayListOf(">", "<", ">=", "<=", "in", "!in")
+
+/* Built-in selector filter comparing integer api levels. Other filters define their own operands. */
+private const val ANDROID_FILTER = "android"
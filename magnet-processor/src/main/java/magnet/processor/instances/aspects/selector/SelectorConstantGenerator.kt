@@ -0,0 +1,94 @@
+package magnet.processor.instances.aspects.selector
+
+import com.squareup.javapoet.ClassName
+import com.squareup.javapoet.CodeBlock
+import com.squareup.javapoet.FieldSpec
+import com.squareup.javapoet.TypeSpec
+import magnet.Selector
+import magnet.processor.instances.SelectorExpression
+import magnet.processor.instances.generator.AspectGenerator
+import javax.lang.model.element.Modifier
+
+/** Generates the constant with compiled selector passed by the factory constructor. */
+internal class SelectorConstantGenerator : AspectGenerator {
+
+    private var constantFieldSpec: FieldSpec? = null
+    private var constantInitializer: CodeBlock? = null
+
+    override fun generate(classBuilder: TypeSpec.Builder) {
+        constantFieldSpec?.let { classBuilder.addField(it) }
+    }
+
+    override fun reset() {
+        constantFieldSpec = null
+        constantInitializer = null
+    }
+
+    fun visitSelectorExpression(expression: SelectorExpression) {
+        constantInitializer = selectorCodeBlock(expression)
+    }
+
+    fun exitGetSelectorMethod() {
+        constantFieldSpec = FieldSpec
+            .builder(SELECTOR_CLASS_NAME, SELECTOR)
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+            .initializer(checkNotNull(constantInitializer))
+            .build()
+    }
+}
+
+internal const val SELECTOR = "SELECTOR"
+
+/** Returns the expression creating compiled selector for given selector expression. */
+internal fun selectorCodeBlock(expression: SelectorExpression): CodeBlock =
+    CodeBlock.builder().addExpression(expression).build()
+
+private fun CodeBlock.Builder.addExpression(expression: SelectorExpression): CodeBlock.Builder =
+    when (expression) {
+        is SelectorExpression.Clause -> addClause(expression)
+        is SelectorExpression.And -> addCombination("and", expression.expressions)
+        is SelectorExpression.Or -> addCombination("or", expression.expressions)
+        is SelectorExpression.Not -> addCombination("not", listOf(expression.expression))
+    }
+
+private fun CodeBlock.Builder.addCombination(
+    method: String,
+    expressions: List<SelectorExpression>
+): CodeBlock.Builder {
+    add("\$T.\$L(", SELECTOR_CLASS_NAME, method)
+    expressions.forEachIndexed { index, expression ->
+        if (index > 0) add(", ")
+        addExpression(expression)
+    }
+    return add(")")
+}
+
+private fun CodeBlock.Builder.addClause(clause: SelectorExpression.Clause): CodeBlock.Builder {
+    add(
+        "\$T.clause(\$S, \$S, \$T.\$L",
+        SELECTOR_CLASS_NAME, clause.filter, clause.key,
+        SELECTOR_CLASS_NAME, OPERATOR_CONSTANTS.getValue(clause.operator)
+    )
+    val operands = clause.operands
+    when {
+        operands.all { it.toIntOrNull() != null } ->
+            operands.forEach { add(", \$L", it.toInt()) }
+        operands.size == 1 && (operands[0] == "true" || operands[0] == "false") ->
+            add(", \$L", operands[0])
+        else ->
+            operands.forEach { add(", \$S", it) }
+    }
+    return add(")")
+}
+
+private val SELECTOR_CLASS_NAME = ClassName.get(Selector::class.java)
+private val OPERATOR_CONSTANTS = mapOf(
+    "==" to "EQUAL",
+    "!=" to "NOT_EQUAL",
+    ">" to "GREATER",
+    ">=" to "GREATER_OR_EQUAL",
+    "<" to "LESS",
+    "<=" to "LESS_OR_EQUAL",
+    "in" to "IN",
+    "!in" to "NOT_IN"
+)
@@ -20,27 +20,19 @@ import com.squareup.javapoet.ArrayTypeName
 import com.squareup.javapoet.ClassName
 import com.squareup.javapoet.CodeBlock
 import com.squareup.javapoet.FieldSpec
-import com.squareup.javapoet.MethodSpec
 import com.squareup.javapoet.TypeSpec
 import magnet.processor.instances.generator.AspectGenerator
 import magnet.processor.instances.GetSiblingTypesMethod
 import javax.lang.model.element.Modifier
 
-internal class GetSiblingTypesMethodGenerator : AspectGenerator {
+/** Generates the constant with sibling types passed by the factory constructor. */
+internal class SiblingTypesConstantGenerator : AspectGenerator {
 
-    private var getSiblingTypes: MethodSpec? = null
     private var constBuilder: FieldSpec? = null
     private var constInitializer: CodeBlock.Builder? = null
     private var typesLeft: Int = 0
 
     fun enterSiblingTypesMethod(method: GetSiblingTypesMethod) {
-        getSiblingTypes = MethodSpec
-            .methodBuilder("getSiblingTypes")
-            .addModifiers(Modifier.PUBLIC)
-            .addAnnotation(Override::class.java)
-            .returns(ArrayTypeName.of(Class::class.java))
-            .addStatement("return SIBLING_TYPES")
-            .build()
         constInitializer = CodeBlock.builder().add("{ ")
         typesLeft = method.siblingTypes.size
     }
@@ -55,14 +47,13 @@ internal class GetSiblingTypesMethodGenerator : AspectGenerator {
 
     fun exitSiblingTypesMethod() {
         constBuilder = FieldSpec
-            .builder(ArrayTypeName.of(Class::class.java), "SIBLING_TYPES")
-            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .builder(ArrayTypeName.of(Class::class.java), SIBLING_TYPES)
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
             .initializer(checkNotNull(constInitializer).build())
             .build()
     }
 
     override fun reset() {
-        getSiblingTypes = null
         constBuilder = null
         constInitializer = null
         typesLeft = 0
@@ -70,6 +61,7 @@ internal class GetSiblingTypesMethodGenerator : AspectGenerator {
 
     override fun generate(classBuilder: TypeSpec.Builder) {
         constBuilder?.let { classBuilder.addField(it) }
-        getSiblingTypes?.let { classBuilder.addMethod(it) }
     }
 }
+
+internal const val SIBLING_TYPES = "SIBLING_TYPES"
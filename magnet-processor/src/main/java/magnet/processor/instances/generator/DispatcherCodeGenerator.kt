@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.processor.instances.generator
+
+import com.squareup.javapoet.ArrayTypeName
+import com.squareup.javapoet.ClassName
+import com.squareup.javapoet.CodeBlock
+import com.squareup.javapoet.FieldSpec
+import com.squareup.javapoet.MethodSpec
+import com.squareup.javapoet.TypeName
+import com.squareup.javapoet.TypeSpec
+import magnet.Scope
+import magnet.Scoping
+import magnet.Selector
+import magnet.internal.Generated
+import magnet.internal.InstanceDispatcher
+import magnet.processor.instances.FactoryType
+import magnet.processor.instances.PARAM_SCOPE_NAME
+import magnet.processor.instances.aspects.factory.StandardFactoryCreateMethodGenerator
+import magnet.processor.instances.aspects.selector.selectorCodeBlock
+import javax.lang.model.element.Modifier
+
+/**
+ * Generates a dispatcher creating instances of all given factories of a package. Factory
+ * ids are positions of the factories in the list. Metadata of the factories is generated
+ * into constant tables passed to [InstanceDispatcher].
+ */
+class DispatcherCodeGenerator {
+
+    fun generate(dispatcherClassName: ClassName, factoryTypes: List<FactoryType>): CodeWriter {
+
+        val classBuilder = TypeSpec
+            .classBuilder(dispatcherClassName)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addAnnotation(Generated::class.java)
+            .superclass(InstanceDispatcher::class.java)
+
+        val types = classBuilder.addTable("TYPES", TypeName.get(Class::class.java), factoryTypes) {
+            CodeBlock.of("\$T.class", it.interfaceType)
+        }
+        val scopings = classBuilder.addTable("SCOPINGS", TypeName.get(Scoping::class.java), factoryTypes) {
+            CodeBlock.of("\$T.\$L", Scoping::class.java, it.getScopingMethod.scoping)
+        }
+        val limits = classBuilder.addOptionalTable(
+            "LIMITS", TypeName.get(String::class.java), factoryTypes, { it.getLimitMethod != null }
+        ) {
+            CodeBlock.of("\$S", it.getLimitMethod?.limit ?: "")
+        }
+        val selectors = classBuilder.addOptionalTable(
+            "SELECTORS", TypeName.get(Selector::class.java), factoryTypes, { it.getSelectorMethod != null }
+        ) {
+            it.getSelectorMethod?.let { method -> selectorCodeBlock(method.expression) } ?: CodeBlock.of("null")
+        }
+        val disposables = classBuilder.addOptionalTable(
+            "DISPOSABLES", TypeName.BOOLEAN, factoryTypes, { it.disposerMethodName != null }
+        ) {
+            CodeBlock.of("\$L", it.disposerMethodName != null)
+        }
+        val nullables = classBuilder.addOptionalTable(
+            "NULLABLES", TypeName.BOOLEAN, factoryTypes, { it.nullable }
+        ) {
+            CodeBlock.of("\$L", it.nullable)
+        }
+
+        val superArguments = mutableListOf(types, scopings, limits, selectors, disposables)
+        if (nullables != "null") superArguments.add(nullables)
+
+        classBuilder
+            .addField(
+                FieldSpec
+                    .builder(dispatcherClassName, "INSTANCE")
+                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("new \$T()", dispatcherClassName)
+                    .build()
+            )
+            .addMethod(
+                MethodSpec
+                    .constructorBuilder()
+                    .addModifiers(Modifier.PRIVATE)
+                    .addStatement("super(\$L)", superArguments.joinToString(", "))
+                    .build()
+            )
+            .addMethod(generateCreateMethod(factoryTypes))
+
+        if (factoryTypes.any { it.disposerMethodName != null }) {
+            classBuilder.addMethod(generateDisposeMethod(factoryTypes))
+        }
+
+        factoryTypes.forEachIndexed { id, factoryType ->
+            classBuilder.addMethod(generateCreateMethod(id, factoryType))
+        }
+
+        return CodeWriter(dispatcherClassName.packageName(), classBuilder.build())
+    }
+
+    private fun generateCreateMethod(factoryTypes: List<FactoryType>): MethodSpec {
+        val code = CodeBlock.builder().beginControlFlow("switch (id)")
+        factoryTypes.forEachIndexed { id, _ ->
+            code.add("case \$L:\n", id)
+                .indent()
+                .addStatement("return create\$L(\$L)", id, PARAM_SCOPE_NAME)
+                .unindent()
+        }
+        code.add("default:\n")
+            .indent()
+            .addStatement(
+                "throw new \$T(\$T.format(\"Unknown factory id %s\", id))",
+                IllegalStateException::class.java, String::class.java
+            )
+            .unindent()
+            .endControlFlow()
+
+        return MethodSpec
+            .methodBuilder("create")
+            .addAnnotation(Override::class.java)
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(TypeName.INT, "id")
+            .addParameter(Scope::class.java, PARAM_SCOPE_NAME)
+            .returns(Object::class.java)
+            .addCode(code.build())
+            .build()
+    }
+
+    private fun generateDisposeMethod(factoryTypes: List<FactoryType>): MethodSpec {
+        val code = CodeBlock.builder().beginControlFlow("switch (id)")
+        factoryTypes.forEachIndexed { id, factoryType ->
+            val disposerMethodName = factoryType.disposerMethodName ?: return@forEachIndexed
+            code.add("case \$L:\n", id)
+                .indent()
+                .addStatement("((\$T) instance).\$L()", factoryType.implementationType, disposerMethodName)
+                .addStatement("return")
+                .unindent()
+        }
+        code.add("default:\n")
+            .indent()
+            .addStatement("super.dispose(id, instance)")
+            .unindent()
+            .endControlFlow()
+
+        return MethodSpec
+            .methodBuilder("dispose")
+            .addAnnotation(Override::class.java)
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(TypeName.INT, "id")
+            .addParameter(Object::class.java, "instance")
+            .returns(TypeName.VOID)
+            .addCode(code.build())
+            .build()
+    }
+
+    /* Reuses the create method of a standalone factory as private static method of the dispatcher. */
+    private fun generateCreateMethod(id: Int, factoryType: FactoryType): MethodSpec {
+        val createMethodGenerator = StandardFactoryCreateMethodGenerator()
+        createMethodGenerator.visitFactoryClass(factoryType)
+        createMethodGenerator.enterCreateMethod(factoryType.createMethod)
+        factoryType.createMethod.methodParameter.forEach {
+            createMethodGenerator.visitCreateMethodParameter(it)
+        }
+        createMethodGenerator.exitCreateMethod()
+
+        val factoryBuilder = TypeSpec.classBuilder(factoryType.factoryType)
+        createMethodGenerator.generate(factoryBuilder)
+        val createMethod = factoryBuilder.build().methodSpecs.single()
+
+        return MethodSpec
+            .methodBuilder("create$id")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .addAnnotations(createMethod.annotations.filter { it.type != OVERRIDE_CLASS_NAME })
+            .addParameters(createMethod.parameters)
+            .returns(createMethod.returnType)
+            .addCode(createMethod.code)
+            .build()
+    }
+}
+
+private val OVERRIDE_CLASS_NAME = ClassName.get(Override::class.java)
+
+private fun TypeSpec.Builder.addTable(
+    name: String,
+    elementType: TypeName,
+    factoryTypes: List<FactoryType>,
+    element: (FactoryType) -> CodeBlock
+): String {
+    val initializer = CodeBlock.builder().add("{ ")
+    factoryTypes.forEachIndexed { index, factoryType ->
+        if (index > 0) initializer.add(", ")
+        initializer.add(element(factoryType))
+    }
+    addField(
+        FieldSpec
+            .builder(ArrayTypeName.of(elementType), name)
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+            .initializer(initializer.add(" }").build())
+            .build()
+    )
+    return name
+}
+
+/* Adds the table only if some factory needs a non-default value, otherwise returns null. */
+private fun TypeSpec.Builder.addOptionalTable(
+    name: String,
+    elementType: TypeName,
+    factoryTypes: List<FactoryType>,
+    needed: (FactoryType) -> Boolean,
+    element: (FactoryType) -> CodeBlock
+): String =
+    if (factoryTypes.any(needed)) addTable(name, elementType, factoryTypes, element)
+    else "null"
@@ -17,28 +17,28 @@
 package magnet.processor.instances.generator
 
 import com.squareup.javapoet.ClassName
+import com.squareup.javapoet.CodeBlock
 import com.squareup.javapoet.MethodSpec
 import com.squareup.javapoet.ParameterizedTypeName
 import com.squareup.javapoet.TypeName
 import com.squareup.javapoet.TypeSpec
+import magnet.Scoping
 import magnet.internal.Generated
 import magnet.internal.InstanceFactory
 import magnet.processor.instances.CreateMethod
 import magnet.processor.instances.FactoryType
 import magnet.processor.instances.FactoryTypeVisitor
-import magnet.processor.instances.GetLimitMethod
-import magnet.processor.instances.GetScopingMethod
 import magnet.processor.instances.GetSelectorMethod
 import magnet.processor.instances.GetSiblingTypesMethod
 import magnet.processor.instances.MethodParameter
-import magnet.processor.instances.aspects.limitedto.GetLimitMethodGenerator
-import magnet.processor.instances.aspects.selector.GetSelectorMethodGenerator
+import magnet.processor.instances.SelectorExpression
+import magnet.processor.instances.aspects.selector.SELECTOR
+import magnet.processor.instances.aspects.selector.SelectorConstantGenerator
 import magnet.processor.instances.aspects.disposer.DisposeMethodGenerator
-import magnet.processor.instances.aspects.disposer.IsDisposableMethodGenerator
 import magnet.processor.instances.aspects.factory.CreateMethodGenerator
 import magnet.processor.instances.aspects.factory.DefaultCreateMethodGenerator
-import magnet.processor.instances.aspects.scoping.GetScopingMethodGenerator
-import magnet.processor.instances.aspects.siblings.GetSiblingTypesMethodGenerator
+import magnet.processor.instances.aspects.siblings.SIBLING_TYPES
+import magnet.processor.instances.aspects.siblings.SiblingTypesConstantGenerator
 import javax.lang.model.element.Modifier
 
 interface AspectGenerator {
@@ -71,18 +71,14 @@ class FactoryTypeCodeGenerator : FactoryTypeVisitor, CodeGenerator {
     private var factoryClassName: ClassName? = null
     private var generateGettersInCreateMethod = false
 
-    private val aspectGetSiblingTypes = Aspect(GetSiblingTypesMethodGenerator())
-    private val aspectGetScoping = Aspect(GetScopingMethodGenerator())
-    private val aspectGetLimit = Aspect(GetLimitMethodGenerator())
-    private val aspectGetSelector = Aspect(GetSelectorMethodGenerator())
+    private val aspectSiblingTypes = Aspect(SiblingTypesConstantGenerator())
+    private val aspectSelector = Aspect(SelectorConstantGenerator())
     private val createMethodGenerator: CreateMethodGenerator = DefaultCreateMethodGenerator()
-    private val isDisposableMethodGenerator = IsDisposableMethodGenerator()
     private val disposeMethodGenerator = DisposeMethodGenerator()
 
     override fun enterFactoryClass(factoryType: FactoryType) {
         generateGettersInCreateMethod = factoryType.customFactoryType == null
         createMethodGenerator.visitFactoryClass(factoryType)
-        isDisposableMethodGenerator.visitFactoryClass(factoryType)
         disposeMethodGenerator.visitFactoryClass(factoryType)
     }
 
@@ -99,36 +95,24 @@ class FactoryTypeCodeGenerator : FactoryTypeVisitor, CodeGenerator {
         createMethodGenerator.exitCreateMethod()
     }
 
-    override fun visit(method: GetScopingMethod) {
-        aspectGetScoping.visit { visit(method) }
-    }
-
-    override fun visit(method: GetLimitMethod) {
-        aspectGetLimit.visit { visit(method) }
-    }
-
     override fun enterSiblingTypesMethod(method: GetSiblingTypesMethod) {
-        aspectGetSiblingTypes.visit { enterSiblingTypesMethod(method) }
+        aspectSiblingTypes.visit { enterSiblingTypesMethod(method) }
     }
 
     override fun visitSiblingType(type: ClassName) {
-        aspectGetSiblingTypes.visit { visitSiblingType(type) }
+        aspectSiblingTypes.visit { visitSiblingType(type) }
     }
 
     override fun exitSiblingTypesMethod(method: GetSiblingTypesMethod) {
-        aspectGetSiblingTypes.visit { exitSiblingTypesMethod() }
+        aspectSiblingTypes.visit { exitSiblingTypesMethod() }
     }
 
-    override fun enterGetSelectorMethod(method: GetSelectorMethod) {
-        aspectGetSelector.visit { enterGetSelectorMethod(method) }
-    }
-
-    override fun visitSelectorArgument(argument: String) {
-        aspectGetSelector.visit { visitSelectorArgument(argument) }
+    override fun visitSelectorExpression(expression: SelectorExpression) {
+        aspectSelector.visit { visitSelectorExpression(expression) }
     }
 
     override fun exitGetSelectorMethod(method: GetSelectorMethod) {
-        aspectGetSelector.visit { exitGetSelectorMethod() }
+        aspectSelector.visit { exitGetSelectorMethod() }
     }
 
     override fun exitFactoryClass(factory: FactoryType) {
@@ -141,13 +125,11 @@ class FactoryTypeCodeGenerator : FactoryTypeVisitor, CodeGenerator {
             .addAnnotation(Generated::class.java)
             .superclass(generateFactorySuperInterface(factory))
 
-        createMethodGenerator.generate(classBuilder)
+        aspectSiblingTypes.generate(classBuilder)
+        aspectSelector.generate(classBuilder)
+        classBuilder.addMethod(generateConstructor(factory))
 
-        aspectGetScoping.generate(classBuilder)
-        aspectGetLimit.generate(classBuilder)
-        aspectGetSiblingTypes.generate(classBuilder)
-        aspectGetSelector.generate(classBuilder)
-        isDisposableMethodGenerator.generate(classBuilder)
+        createMethodGenerator.generate(classBuilder)
         disposeMethodGenerator.generate(classBuilder)
 
         classBuilder
@@ -156,6 +138,27 @@ class FactoryTypeCodeGenerator : FactoryTypeVisitor, CodeGenerator {
         factoryTypeSpec = classBuilder.build()
     }
 
+    /* Metadata is passed into final fields of InstanceFactory instead of overriding its getters. */
+    private fun generateConstructor(factoryType: FactoryType): MethodSpec {
+        val arguments = CodeBlock.of(
+            "\$T.\$L, \$S, \$L, \$L, \$L",
+            Scoping::class.java,
+            factoryType.getScopingMethod.scoping,
+            factoryType.getLimitMethod?.limit ?: "",
+            if (factoryType.getSiblingTypesMethod != null) SIBLING_TYPES else "null",
+            if (factoryType.getSelectorMethod != null) SELECTOR else "null",
+            factoryType.disposerMethodName != null
+        )
+        return MethodSpec
+            .constructorBuilder()
+            .addModifiers(Modifier.PUBLIC)
+            .addStatement(
+                if (factoryType.nullable) "super(\$L, true)" else "super(\$L)",
+                arguments
+            )
+            .build()
+    }
+
     private fun generateGetTypeMethod(factoryType: FactoryType): MethodSpec {
         return MethodSpec
             .methodBuilder("getType")
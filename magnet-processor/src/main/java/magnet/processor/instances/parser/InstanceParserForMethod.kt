@@ -135,7 +135,9 @@ internal class InstanceParserForMethod(
                 customFactoryType = instance.factory,
                 implementationType = null,
                 factoryType = ClassName.bestGuess(factoryFullName),
-                createStatement = StaticMethodCreateStatement(staticMethodClassName, staticMethodName),
+                createStatement = StaticMethodCreateStatement(
+                    staticMethodClassName, staticMethodName, element.returnsNotNull()
+                ),
                 createMethod = CreateMethod(methodParameters),
                 getScopingMethod = GetScopingMethod(instance.scoping),
                 getLimitMethod = getLimitMethod,
@@ -152,6 +154,13 @@ private fun String.capitalize() =
         else it.toString()
     }
 
+/* Kotlin functions with non-null return type are annotated with @NotNull in bytecode too. */
+private fun ExecutableElement.returnsNotNull(): Boolean =
+    (annotationMirrors + returnType.annotationMirrors).any {
+        val name = it.annotationType.asElement().simpleName
+        name.contentEquals("NotNull") || name.contentEquals("NonNull")
+    }
+
 private fun Element.getTopmostTypeElement(): TypeElement {
     var result: TypeElement? = null
     var element: Element? = this
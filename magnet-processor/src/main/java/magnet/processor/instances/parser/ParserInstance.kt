@@ -4,6 +4,7 @@ import com.squareup.javapoet.ClassName
 import com.squareup.javapoet.TypeName
 import magnet.Classifier
 import magnet.Scoping
+import magnet.processor.instances.SelectorExpression
 import javax.lang.model.element.Element
 import javax.lang.model.element.TypeElement
 
@@ -15,7 +16,7 @@ data class ParserInstance<E : Element>(
     val classifier: String = Classifier.NONE,
     val scoping: String = Scoping.TOPMOST.name,
     val limitedTo: String = "",
-    val selector: List<String>? = null,
+    val selector: SelectorExpression? = null,
     val factory: TypeName? = null,
     val disposer: String? = null,
     val disabled: Boolean = false
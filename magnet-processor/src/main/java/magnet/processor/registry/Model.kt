@@ -5,12 +5,16 @@ import com.squareup.javapoet.ClassName
 class Model private constructor() {
 
     class Registry(
-        val instanceFactories: List<InstanceFactory>
+        val instanceFactories: List<InstanceFactory>,
+        val lazyFactories: Boolean = false
     )
 
     class InstanceFactory(
         val factoryClass: ClassName,
         val instanceType: ClassName,
-        val classifier: String
+        val classifier: String,
+        val limit: String,
+        val publicInstanceType: ClassName? = null,
+        val dispatcherId: Int? = null
     )
 }
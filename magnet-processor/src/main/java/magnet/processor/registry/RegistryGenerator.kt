@@ -17,6 +17,7 @@
 package magnet.processor.registry
 
 import com.squareup.javapoet.ClassName
+import com.squareup.javapoet.CodeBlock
 import com.squareup.javapoet.MethodSpec
 import com.squareup.javapoet.ParameterSpec
 import com.squareup.javapoet.TypeSpec
@@ -28,6 +29,9 @@ import javax.lang.model.element.Modifier
 private const val INSTANCE_MANAGER = "instanceManager"
 private const val INSTANCE_MANAGER_NAME = "MagnetInstanceManager"
 private const val INSTANCE_MANAGER_PACKAGE = "magnet.internal"
+private const val LIMITS_NAME = "Limits"
+private const val INTERNAL_FACTORY_NAME = "InternalFactory"
+private const val ENTRY_POINT_SUFFIX = "MagnetRegistry"
 
 class RegistryGenerator {
 
@@ -38,6 +42,16 @@ class RegistryGenerator {
         val instanceFactoriesIndex = instanceIndexGenerator.generate(registry)
         val registryClassName = ClassName.bestGuess(REGISTRY_CLASS_NAME)
         val factoryRegistryClassName = ClassName.get(INSTANCE_MANAGER_PACKAGE, INSTANCE_MANAGER_NAME)
+        val limitsClassName = ClassName.get(INSTANCE_MANAGER_PACKAGE, LIMITS_NAME)
+        val internalFactoryClassName = ClassName.get(INSTANCE_MANAGER_PACKAGE, INTERNAL_FACTORY_NAME)
+
+        val limitsCode = CodeBlock.builder()
+        registry.instanceFactories
+            .map { it.limit }
+            .filter { it.isNotEmpty() }
+            .distinct()
+            .sorted()
+            .forEach { limitsCode.addStatement("\$T.register(\$S)", limitsClassName, it) }
 
         val typeSpec = TypeSpec
             .classBuilder(registryClassName)
@@ -50,11 +64,48 @@ class RegistryGenerator {
                     .builder(factoryRegistryClassName, INSTANCE_MANAGER)
                     .build())
                 .addCode(instanceFactoriesIndex)
-                .addStatement("\$L.register(factories, index)", INSTANCE_MANAGER)
+                .addCode(limitsCode.build())
+                .addStatement(
+                    if (registry.lazyFactories) "\$L.register(factories, index, namedIndex)"
+                    else "\$L.register(factories, index)",
+                    INSTANCE_MANAGER
+                )
+                .build())
+            .addMethod(MethodSpec
+                .methodBuilder("install")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addStatement("\$T \$L = new \$T()", factoryRegistryClassName, INSTANCE_MANAGER, factoryRegistryClassName)
+                .addStatement("register(\$L)", INSTANCE_MANAGER)
+                .addStatement("\$T.install(\$L)", internalFactoryClassName, INSTANCE_MANAGER)
                 .build())
             .build()
 
         val packageName = registryClassName.packageName()
         return CodeWriter(packageName, typeSpec)
     }
+
+    fun generateEntryPoint(registryType: ClassName): CodeWriter {
+
+        val entryPointClassName = ClassName.get(
+            registryType.packageName(),
+            registryType.simpleNames().joinToString("") + ENTRY_POINT_SUFFIX
+        )
+
+        val typeSpec = TypeSpec
+            .classBuilder(entryPointClassName)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addAnnotation(Generated::class.java)
+            .addMethod(MethodSpec
+                .constructorBuilder()
+                .addModifiers(Modifier.PRIVATE)
+                .build())
+            .addMethod(MethodSpec
+                .methodBuilder("install")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addStatement("\$T.install()", ClassName.bestGuess(REGISTRY_CLASS_NAME))
+                .build())
+            .build()
+
+        return CodeWriter(entryPointClassName.packageName(), typeSpec)
+    }
 }
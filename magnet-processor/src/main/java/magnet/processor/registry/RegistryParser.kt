@@ -2,39 +2,61 @@ package magnet.processor.registry
 
 import com.squareup.javapoet.ClassName
 import magnet.internal.Index
+import magnet.internal.InstanceDispatcher
 import magnet.internal.InstanceFactory
 import magnet.processor.common.AnnotationValueExtractor
 import magnet.processor.common.isOfAnnotationType
 import javax.lang.model.AnnotatedConstruct
 import javax.lang.model.element.PackageElement
+import javax.lang.model.element.Element
+import javax.lang.model.element.ElementKind
+import javax.lang.model.element.Modifier
 import javax.lang.model.element.TypeElement
+import javax.lang.model.util.Elements
 
 class RegistryParser(
-    private val extractor: AnnotationValueExtractor
+    private val extractor: AnnotationValueExtractor,
+    private val elements: Elements
 ) {
 
-    fun parse(element: PackageElement): Model.Registry {
+    fun parse(element: PackageElement, lazyFactories: Boolean): Model.Registry {
 
         val instanceFactories = mutableListOf<Model.InstanceFactory>()
         val factoryIndexElements = element.enclosedElements ?: emptyList()
 
         for (factoryIndexElement in factoryIndexElements) {
-            factoryIndexElement.annotationValues { factoryType, factoryClass, instanceType, classifier ->
+            factoryIndexElement.annotationValues { factoryType, factoryClass, instanceType, classifier, limit, dispatched ->
                 when {
                     factoryType.isOfType(InstanceFactory::class.java) ->
                         instanceFactories.add(
                             Model.InstanceFactory(
                                 factoryClass = factoryClass,
-                                instanceType = instanceType,
-                                classifier = classifier
+                                instanceType = ClassName.bestGuess(instanceType),
+                                classifier = classifier,
+                                limit = limit,
+                                publicInstanceType = if (lazyFactories) instanceType.findPublicType() else null
                             )
                         )
+                    factoryType.isOfType(InstanceDispatcher::class.java) ->
+                        dispatched.forEachIndexed { dispatcherId, (dispatchedType, dispatchedClassifier, dispatchedLimit) ->
+                            instanceFactories.add(
+                                Model.InstanceFactory(
+                                    factoryClass = factoryClass,
+                                    instanceType = ClassName.bestGuess(dispatchedType),
+                                    classifier = dispatchedClassifier,
+                                    limit = dispatchedLimit,
+                                    publicInstanceType = if (lazyFactories) dispatchedType.findPublicType() else null,
+                                    dispatcherId = dispatcherId
+                                )
+                            )
+                        }
                 }
             }
         }
 
         return Model.Registry(
-            instanceFactories = instanceFactories
+            instanceFactories = instanceFactories,
+            lazyFactories = lazyFactories
         )
     }
 
@@ -42,8 +64,10 @@ class RegistryParser(
         block: (
             factoryType: ClassName,
             factoryClass: ClassName,
-            instanceType: ClassName,
-            classifier: String
+            instanceType: String,
+            classifier: String,
+            limit: String,
+            dispatched: List<Triple<String, String, String>>
         ) -> Unit
     ) {
 
@@ -51,6 +75,10 @@ class RegistryParser(
         var factoryClass: TypeElement? = null
         var instanceType: String? = null
         var classifier: String? = null
+        var limit = ""
+        var instanceTypes = emptyList<String>()
+        var classifiers = emptyList<String>()
+        var limits = emptyList<String>()
 
         for (annotationMirror in annotationMirrors) {
             if (annotationMirror.isOfAnnotationType<Index>()) {
@@ -62,6 +90,10 @@ class RegistryParser(
                         "factoryClass" -> factoryClass = extractor.getTypeElement(entryValue)
                         "instanceType" -> instanceType = extractor.getStringValue(entryValue)
                         "classifier" -> classifier = extractor.getStringValue(entryValue)
+                        "limit" -> limit = extractor.getStringValue(entryValue)
+                        "instanceTypes" -> instanceTypes = extractor.getStringValues(entryValue)
+                        "classifiers" -> classifiers = extractor.getStringValues(entryValue)
+                        "limits" -> limits = extractor.getStringValues(entryValue)
                     }
                 }
                 break
@@ -71,10 +103,24 @@ class RegistryParser(
         block(
             ClassName.get(requireNotNull(factoryType)),
             ClassName.get(requireNotNull(factoryClass)),
-            ClassName.bestGuess(requireNotNull(instanceType)),
-            requireNotNull(classifier)
+            requireNotNull(instanceType),
+            requireNotNull(classifier),
+            limit,
+            instanceTypes.mapIndexed { id, type -> Triple(type, classifiers[id], limits[id]) }
         )
     }
+
+    /** Returns the type, if the index can refer to it by a class literal, or null otherwise. */
+    private fun String.findPublicType(): ClassName? {
+        val canonicalName = replace('$', '.')
+        val typeElement = elements.getTypeElement(canonicalName) ?: return null
+        var element: Element? = typeElement
+        while (element != null && element.kind != ElementKind.PACKAGE) {
+            if (!element.modifiers.contains(Modifier.PUBLIC)) return null
+            element = element.enclosingElement
+        }
+        return ClassName.get(typeElement)
+    }
 }
 
 private fun ClassName.isOfType(type: Class<*>): Boolean =
@@ -16,9 +16,11 @@
 
 package magnet.processor.registry
 
+import com.squareup.javapoet.ClassName
 import magnet.Registry
 import magnet.processor.MagnetProcessorEnv
 import javax.annotation.processing.RoundEnvironment
+import javax.lang.model.element.TypeElement
 
 const val REGISTRY_CLASS_NAME = "magnet.internal.MagnetIndexer"
 const val INDEX_PACKAGE = "magnet.index"
@@ -27,9 +29,11 @@ class RegistryProcessor(
     private val env: MagnetProcessorEnv
 ) {
 
-    private val registryParser by lazy { RegistryParser(env.annotation) }
+    private val registryParser by lazy { RegistryParser(env.annotation, env.elements) }
     private val magnetIndexerGenerator by lazy { RegistryGenerator() }
     private var generateRegistryOnNextRound = false
+    private var lazyFactories = false
+    private var registryTypes = emptyList<ClassName>()
 
     fun process(roundEnv: RoundEnvironment): Boolean {
 
@@ -41,17 +45,29 @@ class RegistryProcessor(
         val annotatedRegistryElement = roundEnv.getElementsAnnotatedWith(Registry::class.java)
         if (!generateRegistryOnNextRound) {
             generateRegistryOnNextRound = annotatedRegistryElement.isNotEmpty()
+            lazyFactories = annotatedRegistryElement.any {
+                it.getAnnotation(Registry::class.java).lazyFactories
+            }
+            registryTypes = annotatedRegistryElement
+                .filterIsInstance<TypeElement>()
+                .map { ClassName.get(it) }
             return false
         }
 
         val packageElement = env.elements.getPackageElement(INDEX_PACKAGE)
-        val registry = if (packageElement != null) registryParser.parse(packageElement)
-        else Model.Registry(instanceFactories = emptyList())
+        val registry = if (packageElement != null) registryParser.parse(packageElement, lazyFactories)
+        else Model.Registry(instanceFactories = emptyList(), lazyFactories = lazyFactories)
 
         magnetIndexerGenerator
             .generate(registry)
             .writeInto(env.filer)
 
+        registryTypes.forEach {
+            magnetIndexerGenerator
+                .generateEntryPoint(it)
+                .writeInto(env.filer)
+        }
+
         return true
     }
 }
@@ -24,7 +24,9 @@ import magnet.processor.registry.instances.Model.Inst
 import magnet.processor.registry.instances.Model.Range
 import magnet.processor.registry.instances.Model.Section
 
-class IndexGeneratorVisitor : IndexVisitor {
+class IndexGeneratorVisitor(
+    private val lazyFactories: Boolean = false
+) : IndexVisitor {
 
     val indexBuilder: CodeBlock.Builder = CodeBlock.builder()
     val targetsBuilder: CodeBlock.Builder = CodeBlock.builder()
@@ -33,6 +35,7 @@ class IndexGeneratorVisitor : IndexVisitor {
     private var generateSingleRange = false
     private var currentSection: Section? = null
     private var sectionIndex = 0
+    private var rangeIndex = 0
 
     override fun visit(inst: Inst) {
         // nop
@@ -54,8 +57,9 @@ class IndexGeneratorVisitor : IndexVisitor {
         val targetsName = "ranges${++sectionIndex}"
 
         indexBuilder.addStatement(
-            "index.put(\$T.getType(), \$L)",
-            section.firstFactory,
+            "\$L.put(\$L, \$L)",
+            section.indexName(),
+            section.typeCodeBlock(),
             targetsName
         )
 
@@ -72,15 +76,19 @@ class IndexGeneratorVisitor : IndexVisitor {
 
     override fun visit(range: Range) {
 
+        val key = rangeIndex++
+
         if (generateSingleRange) {
             currentSection?.let {
                 indexBuilder.addStatement(
-                    "index.put(\$T.getType(), new \$T(\$L, \$L, \$S))",
-                    range.firstFactory,
+                    "\$L.put(\$L, new \$T(\$L, \$L, \$S, \$L))",
+                    it.indexName(),
+                    it.typeCodeBlock(),
                     rangeClassName,
                     range.from,
                     range.impls.size,
-                    range.classifier
+                    range.classifier,
+                    key
                 )
             }
             return
@@ -89,13 +97,32 @@ class IndexGeneratorVisitor : IndexVisitor {
         val targetsName = "ranges$sectionIndex"
 
         targetsBuilder.addStatement(
-            "\$L.put(\$S, new \$T(\$L, \$L, \$S))",
+            "\$L.put(\$S, new \$T(\$L, \$L, \$S, \$L))",
             targetsName,
             range.classifier,
             rangeClassName,
             range.from,
             range.impls.size,
-            range.classifier
+            range.classifier,
+            key
         )
     }
+
+    /*
+     * Class literal of a public type does not load the factory class, unlike getType().
+     * Lazy index refers to other types by name, which are resolved on first lookup.
+     */
+    private fun Section.isNamed(): Boolean =
+        lazyFactories && publicType == null
+
+    private fun Section.indexName(): String =
+        if (isNamed()) "namedIndex" else "index"
+
+    private fun Section.typeCodeBlock(): CodeBlock =
+        when {
+            isNamed() -> CodeBlock.of("\$S", binaryType)
+            publicType != null -> CodeBlock.of("\$T.class", publicType)
+            firstDispatcherId != null -> CodeBlock.of("\$T.INSTANCE.getType(\$L)", firstFactory, firstDispatcherId)
+            else -> CodeBlock.of("\$T.getType()", firstFactory)
+        }
 }
@@ -2,11 +2,16 @@ package magnet.processor.registry.instances
 
 import com.squareup.javapoet.ClassName
 import com.squareup.javapoet.CodeBlock
+import com.squareup.javapoet.MethodSpec
+import com.squareup.javapoet.TypeName
+import com.squareup.javapoet.TypeSpec
 import magnet.internal.InstanceFactory
 import magnet.processor.registry.Model.Registry
 
 internal class InstanceIndexGenerator {
 
+    private val factorySlotsClassName: ClassName = ClassName.bestGuess("magnet.internal.FactorySlots")
+
     fun generate(registry: Registry): CodeBlock {
 
         val index = Indexer().index(
@@ -14,23 +19,30 @@ internal class InstanceIndexGenerator {
                 Model.Inst(
                     type = it.instanceType.toQualifiedName(),
                     classifier = it.classifier,
-                    factory = it.factoryClass
+                    factory = it.factoryClass,
+                    publicType = it.publicInstanceType,
+                    dispatcherId = it.dispatcherId,
+                    binaryType = it.instanceType.reflectionName()
                 )
             }
         )
 
+        val factoriesCodeBlock =
+            if (registry.lazyFactories) generateFactorySlotsCodeBlock(index)
+            else generateArrayOfFactoriesCodeBlock(index)
+
         return CodeBlock.builder()
-            .add(generateArrayOfFactoriesCodeBlock(index))
-            .add(generateIndexCodeBlock(index))
+            .add(factoriesCodeBlock)
+            .add(generateIndexCodeBlock(index, registry.lazyFactories))
             .build()
     }
 
-    private fun generateIndexCodeBlock(index: Model.Index): CodeBlock {
-        val indexGenerator = IndexGeneratorVisitor()
+    private fun generateIndexCodeBlock(index: Model.Index, lazyFactories: Boolean): CodeBlock {
+        val indexGenerator = IndexGeneratorVisitor(lazyFactories)
         index.accept(indexGenerator)
 
         val mapSize = Math.max(Math.round(index.instances.size / 0.75f), 16)
-        return CodeBlock.builder()
+        val builder = CodeBlock.builder()
             .addStatement(
                 "\$T<\$T, \$T> index = new \$T<>($mapSize)",
                 Map::class.java,
@@ -38,6 +50,16 @@ internal class InstanceIndexGenerator {
                 Object::class.java,
                 HashMap::class.java
             )
+        if (lazyFactories) {
+            builder.addStatement(
+                "\$T<\$T, \$T> namedIndex = new \$T<>()",
+                Map::class.java,
+                String::class.java,
+                Object::class.java,
+                HashMap::class.java
+            )
+        }
+        return builder
             .add(indexGenerator.targetsBuilder.build())
             .add(indexGenerator.indexBuilder.build())
             .build()
@@ -54,7 +76,7 @@ internal class InstanceIndexGenerator {
                 .indent()
 
             index.instances.forEach {
-                builder.add("\nnew \$T(),", it.factory)
+                builder.add("\n\$L,", it.factoryCodeBlock())
             }
 
             return builder
@@ -63,7 +85,48 @@ internal class InstanceIndexGenerator {
                 .build()
         }
     }
+
+    private fun generateFactorySlotsCodeBlock(index: Model.Index): CodeBlock {
+        val switchBuilder = CodeBlock.builder()
+            .beginControlFlow("switch (slot)")
+
+        index.instances.forEachIndexed { slot, inst ->
+            switchBuilder
+                .add("case \$L:\n", slot)
+                .indent()
+                .addStatement("return \$L", inst.factoryCodeBlock())
+                .unindent()
+        }
+
+        val switchCodeBlock = switchBuilder
+            .add("default:\n")
+            .indent()
+            .addStatement("return null")
+            .unindent()
+            .endControlFlow()
+            .build()
+
+        val factorySlots = TypeSpec
+            .anonymousClassBuilder("\$L", index.instances.size)
+            .superclass(factorySlotsClassName)
+            .addMethod(MethodSpec
+                .methodBuilder("create")
+                .addAnnotation(Override::class.java)
+                .addParameter(TypeName.INT, "slot")
+                .returns(Object::class.java)
+                .addCode(switchCodeBlock)
+                .build())
+            .build()
+
+        return CodeBlock.builder()
+            .addStatement("\$T factories = \$L", factorySlotsClassName, factorySlots)
+            .build()
+    }
 }
 
+private fun Model.Inst.factoryCodeBlock(): CodeBlock =
+    dispatcherId?.let { CodeBlock.of("\$T.INSTANCE.getFactory(\$L)", factory, it) }
+        ?: CodeBlock.of("new \$T()", factory)
+
 private fun ClassName.toQualifiedName(): String =
     "${this.packageName()}.${this.simpleName()}"
@@ -20,7 +20,10 @@ class Model private constructor() {
     class Inst(
         val type: String,
         val classifier: String,
-        val factory: ClassName
+        val factory: ClassName,
+        val publicType: ClassName? = null,
+        val dispatcherId: Int? = null,
+        val binaryType: String = type
     ) {
         fun accept(visitor: InstVisitor) {
             visitor.visit(this)
@@ -37,7 +40,11 @@ class Model private constructor() {
             if (c2 != 0) {
                 return c2
             }
-            return left.factory.compareTo(right.factory)
+            val c3 = left.factory.compareTo(right.factory)
+            if (c3 != 0) {
+                return c3
+            }
+            return (left.dispatcherId ?: -1).compareTo(right.dispatcherId ?: -1)
         }
     }
 
@@ -54,6 +61,12 @@ class Model private constructor() {
         val impls = mutableListOf<Inst>()
         val firstFactory
             get() = impls[0].factory
+        val firstDispatcherId
+            get() = impls[0].dispatcherId
+        val publicType
+            get() = impls[0].publicType
+        val binaryType
+            get() = impls[0].binaryType
 
         init {
             impls.add(inst)
@@ -73,6 +86,12 @@ class Model private constructor() {
         val ranges = mutableMapOf<String, Range>()
         val firstFactory
             get() = ranges.values.elementAt(0).firstFactory
+        val firstDispatcherId
+            get() = ranges.values.elementAt(0).firstDispatcherId
+        val publicType
+            get() = ranges.values.elementAt(0).publicType
+        val binaryType
+            get() = ranges.values.elementAt(0).binaryType
 
         fun accept(visitor: IndexVisitor) {
             visitor.visit(this)
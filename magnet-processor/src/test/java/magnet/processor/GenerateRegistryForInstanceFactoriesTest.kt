@@ -138,4 +138,86 @@ class GenerateRegistryForInstanceFactoriesTest {
             .generatedSourceFile("magnet/internal/MagnetIndexer")
             .hasSourceEquivalentTo(withResource("expected/MagnetIndexer6.java"))
     }
+
+    @Test
+    fun `Many factories, different limits`() {
+
+        val compilation = Compiler.javac()
+            .withProcessors(MagnetProcessor())
+            .compile(
+                withResource("App.java"),
+                withResource("Interface8_1.java"),
+                withResource("Interface8_2.java"),
+                withResource("Implementation8_1.java"),
+                withResource("Implementation8_2.java")
+            )
+
+        CompilationSubject.assertThat(compilation).succeeded()
+
+        CompilationSubject.assertThat(compilation)
+            .generatedSourceFile("magnet/internal/MagnetIndexer")
+            .hasSourceEquivalentTo(withResource("expected/MagnetIndexer8.java"))
+    }
+
+    @Test
+    fun `Lazy factories`() {
+
+        val compilation = Compiler.javac()
+            .withProcessors(MagnetProcessor())
+            .compile(
+                withResource("LazyApp.java"),
+                withResource("Interface9_1.java"),
+                withResource("Interface9_2.java"),
+                withResource("Implementation9_1.java"),
+                withResource("Implementation9_2.java"),
+                withResource("Implementation9_3.java")
+            )
+
+        CompilationSubject.assertThat(compilation).succeeded()
+
+        CompilationSubject.assertThat(compilation)
+            .generatedSourceFile("magnet/internal/MagnetIndexer")
+            .hasSourceEquivalentTo(withResource("expected/MagnetIndexer9.java"))
+    }
+
+    @Test
+    fun `Registry entry point`() {
+
+        val compilation = Compiler.javac()
+            .withProcessors(MagnetProcessor())
+            .compile(
+                withResource("App.java")
+            )
+
+        CompilationSubject.assertThat(compilation).succeeded()
+
+        CompilationSubject.assertThat(compilation)
+            .generatedSourceFile("test/AppMagnetRegistry")
+            .hasSourceEquivalentTo(withResource("expected/AppMagnetRegistry.java"))
+    }
+
+    @Test
+    fun `Dispatched factories`() {
+
+        val compilation = Compiler.javac()
+            .withProcessors(MagnetProcessor())
+            .withOptions("-Amagnet.dispatcher=Core")
+            .compile(
+                withResource("App.java"),
+                withResource("Interface8_1.java"),
+                withResource("Interface8_2.java"),
+                withResource("Implementation8_1.java"),
+                withResource("Implementation8_2.java")
+            )
+
+        CompilationSubject.assertThat(compilation).succeeded()
+
+        CompilationSubject.assertThat(compilation)
+            .generatedSourceFile("test/CoreMagnetDispatcher")
+            .hasSourceEquivalentTo(withResource("expected/CoreMagnetDispatcher.java"))
+
+        CompilationSubject.assertThat(compilation)
+            .generatedSourceFile("magnet/internal/MagnetIndexer")
+            .hasSourceEquivalentTo(withResource("expected/MagnetIndexer10.java"))
+    }
 }
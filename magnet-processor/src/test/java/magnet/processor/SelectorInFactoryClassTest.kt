@@ -153,6 +153,96 @@ class SelectorInFactoryClassTest {
             .hasSourceEquivalentTo(withResource("generated/Implementation10MagnetFactory.java"))
     }
 
+    @Test
+    fun `Non-integer operand of comparison operator fails compilation`() {
+        val compilation = Compiler.javac()
+            .withProcessors(MagnetProcessor())
+            .compile(
+                withResource("Interface.java"),
+                withResource("Implementation11.java")
+            )
+
+        CompilationSubject.assertThat(compilation).failed()
+        CompilationSubject.assertThat(compilation).hadErrorContaining("Invalid selector")
+    }
+
+    @Test
+    fun `Valid selector (boolean operand)`() {
+        val compilation = Compiler.javac()
+            .withProcessors(MagnetProcessor())
+            .compile(
+                withResource("Interface.java"),
+                withResource("Implementation12.java")
+            )
+
+        CompilationSubject.assertThat(compilation).succeededWithoutWarnings()
+
+        CompilationSubject.assertThat(compilation)
+            .generatedSourceFile("selector/Implementation12MagnetFactory")
+            .hasSourceEquivalentTo(withResource("generated/Implementation12MagnetFactory.java"))
+    }
+
+    @Test
+    fun `Valid compound selector`() {
+        val compilation = Compiler.javac()
+            .withProcessors(MagnetProcessor())
+            .compile(
+                withResource("Interface.java"),
+                withResource("Implementation13.java")
+            )
+
+        CompilationSubject.assertThat(compilation).succeededWithoutWarnings()
+
+        CompilationSubject.assertThat(compilation)
+            .generatedSourceFile("selector/Implementation13MagnetFactory")
+            .hasSourceEquivalentTo(withResource("generated/Implementation13MagnetFactory.java"))
+    }
+
+    @Test
+    fun `Unbalanced parentheses in compound selector fail compilation`() {
+        val compilation = Compiler.javac()
+            .withProcessors(MagnetProcessor())
+            .compile(
+                withResource("Interface.java"),
+                withResource("Implementation14.java")
+            )
+
+        CompilationSubject.assertThat(compilation).failed()
+        CompilationSubject.assertThat(compilation).hadErrorContaining("Invalid selector")
+    }
+
+    @Test
+    fun `Non-integer operands of custom selector filter are kept as strings`() {
+        val compilation = Compiler.javac()
+            .withProcessors(MagnetProcessor())
+            .compile(
+                withResource("Interface.java"),
+                withResource("Implementation15.java")
+            )
+
+        CompilationSubject.assertThat(compilation).succeededWithoutWarnings()
+
+        CompilationSubject.assertThat(compilation)
+            .generatedSourceFile("selector/Implementation15MagnetFactory")
+            .hasSourceEquivalentTo(withResource("generated/Implementation15MagnetFactory.java"))
+    }
+
+    @Test
+    fun `Boolean operand in upper case is kept as written`() {
+        val compilation = Compiler.javac()
+            .withProcessors(MagnetProcessor())
+            .compile(
+                withResource("Interface.java"),
+                withResource("Implementation16.java")
+            )
+
+        CompilationSubject.assertThat(compilation).succeededWithoutWarnings()
+
+        CompilationSubject.assertThat(compilation)
+            .generatedSourceFile("selector/Implementation16MagnetFactory")
+            .hasSourceEquivalentTo(withResource("generated/Implementation16MagnetFactory.java"))
+    }
+
     private fun withResource(name: String): JavaFileObject =
         JavaFileObjects.forResource(javaClass.simpleName + '/' + name)
 }
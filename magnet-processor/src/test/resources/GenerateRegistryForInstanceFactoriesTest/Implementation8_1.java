@@ -0,0 +1,6 @@
+package test;
+
+import magnet.Instance;
+
+@Instance(type = Interface8_1.class, limitedTo = "fragment")
+class Implementation8_1 implements Interface8_1 {}
\ No newline at end of file
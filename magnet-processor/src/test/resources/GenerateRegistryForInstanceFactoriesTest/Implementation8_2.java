@@ -0,0 +1,6 @@
+package test;
+
+import magnet.Instance;
+
+@Instance(type = Interface8_2.class, limitedTo = "activity")
+class Implementation8_2 implements Interface8_2 {}
\ No newline at end of file
@@ -0,0 +1,6 @@
+package test;
+
+import magnet.Instance;
+
+@Instance(type = Interface9_1.class)
+class Implementation9_1 implements Interface9_1 {}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package test;
+
+import magnet.Instance;
+
+@Instance(
+    type = Interface9_2.class,
+    classifier = "one"
+)
+class Implementation9_2 implements Interface9_2 {}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package test;
+
+import magnet.Instance;
+
+@Instance(
+    type = Interface9_2.class,
+    classifier = "two"
+)
+class Implementation9_3 implements Interface9_2 {}
\ No newline at end of file
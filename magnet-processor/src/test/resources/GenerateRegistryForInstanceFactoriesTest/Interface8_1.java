@@ -0,0 +1,3 @@
+package test;
+
+interface Interface8_1 {}
\ No newline at end of file
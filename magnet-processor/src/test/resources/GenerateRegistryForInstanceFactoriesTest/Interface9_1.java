@@ -0,0 +1,3 @@
+package test;
+
+public interface Interface9_1 {}
\ No newline at end of file
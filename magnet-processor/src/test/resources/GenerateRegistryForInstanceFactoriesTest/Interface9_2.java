@@ -0,0 +1,3 @@
+package test;
+
+interface Interface9_2 {}
\ No newline at end of file
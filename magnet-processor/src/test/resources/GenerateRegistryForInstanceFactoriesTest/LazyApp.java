@@ -0,0 +1,6 @@
+package test;
+
+import magnet.Registry;
+
+@Registry(lazyFactories = true)
+class LazyApp {}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package test;
+
+import magnet.internal.Generated;
+import magnet.internal.MagnetIndexer;
+
+@Generated
+public final class AppMagnetRegistry {
+    private AppMagnetRegistry() {}
+
+    public static void install() {
+        MagnetIndexer.install();
+    }
+}
\ No newline at end of file
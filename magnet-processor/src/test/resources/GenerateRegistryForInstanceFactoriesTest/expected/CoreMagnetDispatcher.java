@@ -0,0 +1,41 @@
+package test;
+
+import magnet.Scope;
+import magnet.Scoping;
+import magnet.internal.Generated;
+import magnet.internal.InstanceDispatcher;
+
+@Generated
+public final class CoreMagnetDispatcher extends InstanceDispatcher {
+    private static final Class[] TYPES = { Interface8_1.class, Interface8_2.class };
+
+    private static final Scoping[] SCOPINGS = { Scoping.TOPMOST, Scoping.TOPMOST };
+
+    private static final String[] LIMITS = { "fragment", "activity" };
+
+    public static final CoreMagnetDispatcher INSTANCE = new CoreMagnetDispatcher();
+
+    private CoreMagnetDispatcher() {
+        super(TYPES, SCOPINGS, LIMITS, null, null);
+    }
+
+    @Override
+    public Object create(int id, Scope scope) {
+        switch (id) {
+            case 0:
+                return create0(scope);
+            case 1:
+                return create1(scope);
+            default:
+                throw new IllegalStateException(String.format("Unknown factory id %s", id));
+        }
+    }
+
+    private static Interface8_1 create0(Scope scope) {
+        return new Implementation8_1();
+    }
+
+    private static Interface8_2 create1(Scope scope) {
+        return new Implementation8_2();
+    }
+}
@@ -11,7 +11,13 @@ public final class MagnetIndexer {
             new Implementation1MagnetFactory(),
         };
         Map<Class, Object> index = new HashMap<>(16);
-        index.put(Implementation1MagnetFactory.getType(), new Range(0, 1, ""));
+        index.put(Implementation1MagnetFactory.getType(), new Range(0, 1, "", 0));
         instanceManager.register(factories, index);
     }
+
+    public static void install() {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        register(instanceManager);
+        InternalFactory.install(instanceManager);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package magnet.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import test.CoreMagnetDispatcher;
+
+@Generated
+public final class MagnetIndexer {
+    public static void register(MagnetInstanceManager instanceManager) {
+        InstanceFactory[] factories = new InstanceFactory[] {
+            CoreMagnetDispatcher.INSTANCE.getFactory(0),
+            CoreMagnetDispatcher.INSTANCE.getFactory(1),
+        };
+        Map<Class, Object> index = new HashMap<>(16);
+        index.put(CoreMagnetDispatcher.INSTANCE.getType(0), new Range(0, 1, "", 0));
+        index.put(CoreMagnetDispatcher.INSTANCE.getType(1), new Range(1, 1, "", 1));
+        Limits.register("activity");
+        Limits.register("fragment");
+        instanceManager.register(factories, index);
+    }
+
+    public static void install() {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        register(instanceManager);
+        InternalFactory.install(instanceManager);
+    }
+}
@@ -10,4 +10,10 @@ public final class MagnetIndexer {
         Map<Class, Object> index = new HashMap<>(16);
         instanceManager.register(factories, index);
     }
+
+    public static void install() {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        register(instanceManager);
+        InternalFactory.install(instanceManager);
+    }
 }
\ No newline at end of file
@@ -13,7 +13,13 @@ public final class MagnetIndexer {
             new Implementation3_2MagnetFactory(),
         };
         Map<Class, Object> index = new HashMap<>(16);
-        index.put(Implementation3_1MagnetFactory.getType(), new Range(0, 2, ""));
+        index.put(Implementation3_1MagnetFactory.getType(), new Range(0, 2, "", 0));
         instanceManager.register(factories, index);
     }
+
+    public static void install() {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        register(instanceManager);
+        InternalFactory.install(instanceManager);
+    }
 }
\ No newline at end of file
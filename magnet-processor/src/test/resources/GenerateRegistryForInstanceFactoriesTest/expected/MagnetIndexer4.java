@@ -14,8 +14,14 @@ public final class MagnetIndexer {
         };
         Map<Class, Object> index = new HashMap<>(16);
         Map<String, Range> ranges1 = new HashMap<>(8);
-        ranges1.put("one", new Range(0, 1, "one"));
-        ranges1.put("two", new Range(1, 1, "two"));
+        ranges1.put("one", new Range(0, 1, "one", 0));
+        ranges1.put("two", new Range(1, 1, "two", 1));
         index.put(Implementation4_1MagnetFactory.getType(), ranges1);
         instanceManager.register(factories, index);
+    }
+
+    public static void install() {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        register(instanceManager);
+        InternalFactory.install(instanceManager);
     }
\ No newline at end of file
@@ -13,7 +13,13 @@ public final class MagnetIndexer {
             new Implementation5_2MagnetFactory(),
         };
         Map<Class, Object> index = new HashMap<>(16);
-        index.put(Implementation5_1MagnetFactory.getType(), new Range(0, 2, "zero"));
+        index.put(Implementation5_1MagnetFactory.getType(), new Range(0, 2, "zero", 0));
         instanceManager.register(factories, index);
     }
+
+    public static void install() {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        register(instanceManager);
+        InternalFactory.install(instanceManager);
+    }
 }
\ No newline at end of file
@@ -13,8 +13,14 @@ public final class MagnetIndexer {
             new Implementation6_2MagnetFactory(),
         };
         Map<Class, Object> index = new HashMap<>(16);
-        index.put(Implementation6_1MagnetFactory.getType(), new Range(0, 1, ""));
-        index.put(Implementation6_2MagnetFactory.getType(), new Range(1, 1, ""));
+        index.put(Implementation6_1MagnetFactory.getType(), new Range(0, 1, "", 0));
+        index.put(Implementation6_2MagnetFactory.getType(), new Range(1, 1, "", 1));
         instanceManager.register(factories, index);
     }
+
+    public static void install() {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        register(instanceManager);
+        InternalFactory.install(instanceManager);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package magnet.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import test.Implementation8_1MagnetFactory;
+import test.Implementation8_2MagnetFactory;
+
+@Generated
+public final class MagnetIndexer {
+    public static void register(MagnetInstanceManager instanceManager) {
+        InstanceFactory[] factories = new InstanceFactory[] {
+            new Implementation8_1MagnetFactory(),
+            new Implementation8_2MagnetFactory(),
+        };
+        Map<Class, Object> index = new HashMap<>(16);
+        index.put(Implementation8_1MagnetFactory.getType(), new Range(0, 1, "", 0));
+        index.put(Implementation8_2MagnetFactory.getType(), new Range(1, 1, "", 1));
+        Limits.register("activity");
+        Limits.register("fragment");
+        instanceManager.register(factories, index);
+    }
+
+    public static void install() {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        register(instanceManager);
+        InternalFactory.install(instanceManager);
+    }
+}
@@ -0,0 +1,43 @@
+package magnet.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import test.Implementation9_1MagnetFactory;
+import test.Implementation9_2MagnetFactory;
+import test.Implementation9_3MagnetFactory;
+import test.Interface9_1;
+
+@Generated
+public final class MagnetIndexer {
+    public static void register(MagnetInstanceManager instanceManager) {
+        FactorySlots factories = new FactorySlots(3) {
+            @Override
+            Object create(int slot) {
+                switch (slot) {
+                    case 0:
+                        return new Implementation9_1MagnetFactory();
+                    case 1:
+                        return new Implementation9_2MagnetFactory();
+                    case 2:
+                        return new Implementation9_3MagnetFactory();
+                    default:
+                        return null;
+                }
+            }
+        };
+        Map<Class, Object> index = new HashMap<>(16);
+        Map<String, Object> namedIndex = new HashMap<>();
+        Map<String, Range> ranges1 = new HashMap<>(8);
+        ranges1.put("one", new Range(1, 1, "one", 1));
+        ranges1.put("two", new Range(2, 1, "two", 2));
+        index.put(Interface9_1.class, new Range(0, 1, "", 0));
+        namedIndex.put("test.Interface9_2", ranges1);
+        instanceManager.register(factories, index, namedIndex);
+    }
+
+    public static void install() {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        register(instanceManager);
+        InternalFactory.install(instanceManager);
+    }
+}
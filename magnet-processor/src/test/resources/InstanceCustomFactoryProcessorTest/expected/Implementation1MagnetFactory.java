@@ -11,6 +11,10 @@ public final class Implementation1MagnetFactory extends InstanceFactory<Interfac
 
     private CustomFactory1 factory = null;
 
+    public Implementation1MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false, true);
+    }
+
     @Override
     public Interface1 create(Scope scope) {
         if (factory == null) {
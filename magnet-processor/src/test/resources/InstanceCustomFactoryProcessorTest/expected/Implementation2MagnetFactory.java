@@ -11,6 +11,10 @@ public final class Implementation2MagnetFactory extends InstanceFactory<Interfac
 
     private CustomFactory2<Interface2> factory = null;
 
+    public Implementation2MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false, true);
+    }
+
     @Override
     public Interface2 create(Scope scope) {
         if (factory == null) {
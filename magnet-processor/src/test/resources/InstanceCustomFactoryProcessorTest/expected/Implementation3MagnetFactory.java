@@ -11,6 +11,10 @@ public final class Implementation3MagnetFactory extends InstanceFactory<Interfac
 
     private CustomFactory3 factory = null;
 
+    public Implementation3MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false, true);
+    }
+
     @Override
     public Interface3 create(Scope scope) {
         if (factory == null) {
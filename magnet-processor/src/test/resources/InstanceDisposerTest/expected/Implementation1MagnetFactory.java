@@ -1,20 +1,20 @@
 package test;
 
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class Implementation1MagnetFactory extends InstanceFactory<Interface> {
 
-    @Override
-    public Interface create(Scope scope) {
-        return new Implementation1();
+    public Implementation1MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, true);
     }
 
     @Override
-    public boolean isDisposable() {
-        return true;
+    public Interface create(Scope scope) {
+        return new Implementation1();
     }
 
     @Override
@@ -1,11 +1,16 @@
 package test;
 
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class Delegate1MagnetFactory extends InstanceFactory<Delegate1> {
+    public Delegate1MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     public Delegate1 create(Scope scope) {
         return new Delegate1();
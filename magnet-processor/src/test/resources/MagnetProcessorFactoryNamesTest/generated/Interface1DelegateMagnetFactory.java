@@ -1,11 +1,16 @@
 package test;
 
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class Interface1DelegateMagnetFactory extends InstanceFactory<Interface1.Delegate> {
+    public Interface1DelegateMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     public Interface1.Delegate create(Scope scope) {
         return new Interface1.Delegate();
@@ -2,11 +2,16 @@ package app;
 
 import java.util.List;
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class UnderTestMagnetFactory extends InstanceFactory<UnderTest> {
+    public UnderTestMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     public UnderTest create(Scope scope) {
         List<Foo> dep = scope.getMany(Foo.class, "");
@@ -1,12 +1,17 @@
 package app;
 
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class UnderTestMagnetFactory extends InstanceFactory<UnderTest> {
 
+    public UnderTestMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public UnderTest create(Scope scope) {
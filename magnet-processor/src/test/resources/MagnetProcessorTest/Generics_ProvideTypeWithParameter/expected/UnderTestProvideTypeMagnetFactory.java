@@ -1,11 +1,16 @@
 package app;
 
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class UnderTestProvideTypeMagnetFactory extends InstanceFactory<Type> {
+    public UnderTestProvideTypeMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false, true);
+    }
+
     @Override
     public Type create(Scope scope) {
         return UnderTest.provideType();
@@ -3,12 +3,17 @@ package app;
 import java.util.List;
 import kotlin.Lazy;
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 import magnet.internal.ManyLazy;
 
 @Generated
 public final class UnderTestMagnetFactory extends InstanceFactory<UnderTest> {
+    public UnderTestMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     public UnderTest create(Scope scope) {
         Lazy<List<String>> dep = new ManyLazy(scope, String.class, "");
@@ -2,12 +2,17 @@ package app;
 
 import kotlin.Lazy;
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 import magnet.internal.OptionalLazy;
 
 @Generated
 public final class UnderTestMagnetFactory extends InstanceFactory<UnderTest> {
+    public UnderTestMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     public UnderTest create(Scope scope) {
         Lazy<String> dep = new OptionalLazy(scope, String.class, "");
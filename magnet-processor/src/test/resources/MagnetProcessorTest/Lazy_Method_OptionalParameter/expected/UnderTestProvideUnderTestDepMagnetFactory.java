@@ -2,12 +2,17 @@ package app;
 
 import kotlin.Lazy;
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 import magnet.internal.OptionalLazy;
 
 @Generated
 public final class UnderTestProvideUnderTestDepMagnetFactory extends InstanceFactory<UnderTest> {
+    public UnderTestProvideUnderTestDepMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false, true);
+    }
+
     @Override
     public UnderTest create(Scope scope) {
         Lazy<String> dep = new OptionalLazy(scope, String.class, "");
@@ -1,19 +1,19 @@
 package app;
 
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class UnderTestMagnetFactory extends InstanceFactory<UnderTest> {
-    @Override
-    public UnderTest create(Scope scope) {
-        return new UnderTest(scope);
+    public UnderTestMagnetFactory() {
+        super(Scoping.TOPMOST, "activity", null, null, false);
     }
 
     @Override
-    public String getLimit() {
-        return "activity";
+    public UnderTest create(Scope scope) {
+        return new UnderTest(scope);
     }
 
     public static Class getType() {
@@ -7,19 +7,13 @@ import magnet.internal.InstanceFactory;
 
 @Generated
 public final class UnderTestMagnetFactory extends InstanceFactory<UnderTest> {
-    @Override
-    public UnderTest create(Scope scope) {
-        return new UnderTest(scope);
-    }
-
-    @Override
-    public Scoping getScoping() {
-        return Scoping.DIRECT;
+    public UnderTestMagnetFactory() {
+        super(Scoping.DIRECT, "activity", null, null, false);
     }
 
     @Override
-    public String getLimit() {
-        return "activity";
+    public UnderTest create(Scope scope) {
+        return new UnderTest(scope);
     }
 
     public static Class getType() {
@@ -1,12 +1,17 @@
 package app;
 
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class StaticFunctionProvideInputMagnetFactory extends InstanceFactory<Output> {
 
+    public StaticFunctionProvideInputMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false, true);
+    }
+
     @Override
     public Output create(Scope scope) {
         Input input = scope.getSingle(Input.class, "application");
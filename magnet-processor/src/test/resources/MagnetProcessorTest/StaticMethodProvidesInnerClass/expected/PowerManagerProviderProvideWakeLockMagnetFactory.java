@@ -1,12 +1,17 @@
 package app;
 
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class PowerManagerProviderProvideWakeLockMagnetFactory extends InstanceFactory<PowerManager.WakeLock> {
 
+    public PowerManagerProviderProvideWakeLockMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false, true);
+    }
+
     @Override
     public PowerManager.WakeLock create(Scope scope) {
         return PowerManagerProvider.provideWakeLock();
@@ -1,11 +1,16 @@
 package app.extension;
 
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class ExecutorImplMagnetFactory extends InstanceFactory<Executor> {
+    public ExecutorImplMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     public Executor create(Scope scope) {
         return new ExecutorImpl();
@@ -2,12 +2,17 @@ package app.extension;
 
 import app.Page;
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class HomePageNoParamsMagnetFactory extends InstanceFactory<Page> {
 
+    public HomePageNoParamsMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     public Page create(Scope scope) {
         return new HomePageNoParams();
@@ -4,11 +4,16 @@ import app.Page;
 import app.WorkProcessor;
 import java.util.List;
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class HomePageWithManyParameterizedParamsMagnetFactory extends InstanceFactory<Page> {
+    public HomePageWithManyParameterizedParamsMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public Page create(Scope scope) {
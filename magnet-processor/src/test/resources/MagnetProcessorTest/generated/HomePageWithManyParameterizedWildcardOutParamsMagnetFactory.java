@@ -3,13 +3,17 @@ package app.extension;
 import app.Page;
 import app.WorkProcessor;
 import java.util.List;
-
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class HomePageWithManyParameterizedWildcardOutParamsMagnetFactory extends InstanceFactory<Page> {
+    public HomePageWithManyParameterizedWildcardOutParamsMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public Page create(Scope scope) {
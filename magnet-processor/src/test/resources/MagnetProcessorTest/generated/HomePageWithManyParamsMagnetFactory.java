@@ -4,12 +4,17 @@ import app.HomeRepository;
 import app.Page;
 import java.util.List;
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class HomePageWithManyParamsMagnetFactory extends InstanceFactory<Page> {
 
+    public HomePageWithManyParamsMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     public Page create(Scope scope) {
         List<HomeRepository> variant1 = scope.getMany(HomeRepository.class, "");
@@ -3,14 +3,18 @@ package app.extension;
 import app.HomeRepository;
 import app.Page;
 import java.util.List;
-
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class HomePageWithManyWildcardParamsMagnetFactory extends InstanceFactory<Page> {
 
+    public HomePageWithManyWildcardParamsMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     public Page create(Scope scope) {
         List<HomeRepository> repositories = scope.getMany(HomeRepository.class, "");
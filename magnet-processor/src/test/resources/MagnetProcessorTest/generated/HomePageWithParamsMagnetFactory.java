@@ -4,12 +4,17 @@ import app.HomeRepository;
 import app.Page;
 import app.UserData;
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class HomePageWithParamsMagnetFactory extends InstanceFactory<Page> {
 
+    public HomePageWithParamsMagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     public Page create(Scope scope) {
         HomeRepository homeRepository = scope.getOptional(HomeRepository.class, "");
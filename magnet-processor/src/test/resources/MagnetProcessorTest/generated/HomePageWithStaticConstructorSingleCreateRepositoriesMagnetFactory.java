@@ -11,17 +11,16 @@ import magnet.internal.InstanceFactory;
 @Generated
 public final class HomePageWithStaticConstructorSingleCreateRepositoriesMagnetFactory extends InstanceFactory<Page> {
 
+    public HomePageWithStaticConstructorSingleCreateRepositoriesMagnetFactory() {
+        super(Scoping.UNSCOPED, "", null, null, false, true);
+    }
+
     @Override
     public Page create(Scope scope) {
         List<HomeRepository> repositories = scope.getMany(HomeRepository.class, "");
         return HomePageWithStaticConstructorSingle.create(repositories);
     }
 
-    @Override
-    public Scoping getScoping() {
-        return Scoping.UNSCOPED;
-    }
-
     public static Class getType() {
         return Page.class;
     }
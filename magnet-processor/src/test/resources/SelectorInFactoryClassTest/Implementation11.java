@@ -0,0 +1,9 @@
+package selector;
+
+import magnet.Instance;
+
+@Instance(
+    types = Interface.class,
+    selector = "android.api >= latest"
+)
+class Implementation11 implements Interface {}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package selector;
+
+import magnet.Instance;
+
+@Instance(
+    types = Interface.class,
+    selector = "android.api >= 26 && (features.newPipeline == true"
+)
+class Implementation14 implements Interface {}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package selector;
+
+import magnet.Instance;
+
+@Instance(
+    types = Interface.class,
+    selector = "custom.release in alpha..beta || custom.version >= latest"
+)
+class Implementation15 implements Interface {}
\ No newline at end of file
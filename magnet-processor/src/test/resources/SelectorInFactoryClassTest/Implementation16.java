@@ -0,0 +1,9 @@
+package selector;
+
+import magnet.Instance;
+
+@Instance(
+    types = Interface.class,
+    selector = "features.newPipeline == TRUE"
+)
+class Implementation16 implements Interface {}
\ No newline at end of file
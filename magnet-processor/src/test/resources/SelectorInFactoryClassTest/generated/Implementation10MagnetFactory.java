@@ -1,21 +1,22 @@
 package selector;
 
 import magnet.Scope;
+import magnet.Scoping;
+import magnet.Selector;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class Implementation10MagnetFactory extends InstanceFactory<Interface> {
-    private static String[] SELECTOR = { "android", "api", "!in", "5", "10" };
+    private static final Selector SELECTOR = Selector.clause("android", "api", Selector.NOT_IN, 5, 10);
 
-    @Override
-    public Interface create(Scope scope) {
-        return new Implementation10();
+    public Implementation10MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, SELECTOR, false);
     }
 
     @Override
-    public String[] getSelector() {
-        return SELECTOR;
+    public Interface create(Scope scope) {
+        return new Implementation10();
     }
 
     public static Class getType() {
@@ -0,0 +1,25 @@
+package selector;
+
+import magnet.Scope;
+import magnet.Scoping;
+import magnet.Selector;
+import magnet.internal.Generated;
+import magnet.internal.InstanceFactory;
+
+@Generated
+public final class Implementation12MagnetFactory extends InstanceFactory<Interface> {
+    private static final Selector SELECTOR = Selector.clause("features", "newPipeline", Selector.EQUAL, true);
+
+    public Implementation12MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, SELECTOR, false);
+    }
+
+    @Override
+    public Interface create(Scope scope) {
+        return new Implementation12();
+    }
+
+    public static Class getType() {
+        return Interface.class;
+    }
+}
\ No newline at end of file
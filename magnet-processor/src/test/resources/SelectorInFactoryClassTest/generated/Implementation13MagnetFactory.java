@@ -0,0 +1,25 @@
+package selector;
+
+import magnet.Scope;
+import magnet.Scoping;
+import magnet.Selector;
+import magnet.internal.Generated;
+import magnet.internal.InstanceFactory;
+
+@Generated
+public final class Implementation13MagnetFactory extends InstanceFactory<Interface> {
+    private static final Selector SELECTOR = Selector.and(Selector.clause("android", "api", Selector.GREATER_OR_EQUAL, 26), Selector.not(Selector.or(Selector.clause("features", "newPipeline", Selector.EQUAL, true), Selector.clause("features", "legacy", Selector.EQUAL, false))));
+
+    public Implementation13MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, SELECTOR, false);
+    }
+
+    @Override
+    public Interface create(Scope scope) {
+        return new Implementation13();
+    }
+
+    public static Class getType() {
+        return Interface.class;
+    }
+}
\ No newline at end of file
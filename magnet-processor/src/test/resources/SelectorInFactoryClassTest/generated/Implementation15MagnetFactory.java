@@ -0,0 +1,25 @@
+package selector;
+
+import magnet.Scope;
+import magnet.Scoping;
+import magnet.Selector;
+import magnet.internal.Generated;
+import magnet.internal.InstanceFactory;
+
+@Generated
+public final class Implementation15MagnetFactory extends InstanceFactory<Interface> {
+    private static final Selector SELECTOR = Selector.or(Selector.clause("custom", "release", Selector.IN, "alpha", "beta"), Selector.clause("custom", "version", Selector.GREATER_OR_EQUAL, "latest"));
+
+    public Implementation15MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, SELECTOR, false);
+    }
+
+    @Override
+    public Interface create(Scope scope) {
+        return new Implementation15();
+    }
+
+    public static Class getType() {
+        return Interface.class;
+    }
+}
\ No newline at end of file
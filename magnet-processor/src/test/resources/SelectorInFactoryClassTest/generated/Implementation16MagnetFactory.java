@@ -0,0 +1,25 @@
+package selector;
+
+import magnet.Scope;
+import magnet.Scoping;
+import magnet.Selector;
+import magnet.internal.Generated;
+import magnet.internal.InstanceFactory;
+
+@Generated
+public final class Implementation16MagnetFactory extends InstanceFactory<Interface> {
+    private static final Selector SELECTOR = Selector.clause("features", "newPipeline", Selector.EQUAL, "TRUE");
+
+    public Implementation16MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, SELECTOR, false);
+    }
+
+    @Override
+    public Interface create(Scope scope) {
+        return new Implementation16();
+    }
+
+    public static Class getType() {
+        return Interface.class;
+    }
+}
\ No newline at end of file
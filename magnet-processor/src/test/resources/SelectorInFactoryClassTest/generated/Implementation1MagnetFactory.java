@@ -1,11 +1,16 @@
 package selector;
 
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class Implementation1MagnetFactory extends InstanceFactory<Interface> {
+    public Implementation1MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, null, false);
+    }
+
     @Override
     public Interface create(Scope scope) {
         return new Implementation1();
@@ -1,21 +1,22 @@
 package selector;
 
 import magnet.Scope;
+import magnet.Scoping;
+import magnet.Selector;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class Implementation7MagnetFactory extends InstanceFactory<Interface> {
-    private static String[] SELECTOR = { "android", "api", ">=", "28" };
+    private static final Selector SELECTOR = Selector.clause("android", "api", Selector.GREATER_OR_EQUAL, 28);
 
-    @Override
-    public Interface create(Scope scope) {
-        return new Implementation7();
+    public Implementation7MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, SELECTOR, false);
     }
 
     @Override
-    public String[] getSelector() {
-        return SELECTOR;
+    public Interface create(Scope scope) {
+        return new Implementation7();
     }
 
     public static Class getType() {
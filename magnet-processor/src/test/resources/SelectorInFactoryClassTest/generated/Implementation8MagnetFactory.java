@@ -1,21 +1,22 @@
 package selector;
 
 import magnet.Scope;
+import magnet.Scoping;
+import magnet.Selector;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class Implementation8MagnetFactory extends InstanceFactory<Interface> {
-    private static String[] SELECTOR = { "android", "api", "in", "1", "19" };
+    private static final Selector SELECTOR = Selector.clause("android", "api", Selector.IN, 1, 19);
 
-    @Override
-    public Interface create(Scope scope) {
-        return new Implementation8();
+    public Implementation8MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, SELECTOR, false);
     }
 
     @Override
-    public String[] getSelector() {
-        return SELECTOR;
+    public Interface create(Scope scope) {
+        return new Implementation8();
     }
 
     public static Class getType() {
@@ -1,21 +1,22 @@
 package selector;
 
 import magnet.Scope;
+import magnet.Scoping;
+import magnet.Selector;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class Implementation9MagnetFactory extends InstanceFactory<Interface> {
-    private static String[] SELECTOR = { "android", "api", "!=", "19" };
+    private static final Selector SELECTOR = Selector.clause("android", "api", Selector.NOT_EQUAL, 19);
 
-    @Override
-    public Interface create(Scope scope) {
-        return new Implementation9();
+    public Implementation9MagnetFactory() {
+        super(Scoping.TOPMOST, "", null, SELECTOR, false);
     }
 
     @Override
-    public String[] getSelector() {
-        return SELECTOR;
+    public Interface create(Scope scope) {
+        return new Implementation9();
     }
 
     public static Class getType() {
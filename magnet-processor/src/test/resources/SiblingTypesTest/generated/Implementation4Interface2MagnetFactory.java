@@ -1,21 +1,21 @@
 package siblings;
 
 import magnet.Scope;
+import magnet.Scoping;
 import magnet.internal.Generated;
 import magnet.internal.InstanceFactory;
 
 @Generated
 public final class Implementation4Interface2MagnetFactory extends InstanceFactory<Interface2> {
-    private static Class[] SIBLING_TYPES = {Interface1.class, Implementation4Interface1MagnetFactory.class};
+    private static final Class[] SIBLING_TYPES = {Interface1.class, Implementation4Interface1MagnetFactory.class};
 
-    @Override
-    public Interface2 create(Scope scope) {
-        return new Implementation4();
+    public Implementation4Interface2MagnetFactory() {
+        super(Scoping.TOPMOST, "", SIBLING_TYPES, null, false);
     }
 
     @Override
-    public Class[] getSiblingTypes() {
-        return SIBLING_TYPES;
+    public Interface2 create(Scope scope) {
+        return new Implementation4();
     }
 
     public static Class getType() {
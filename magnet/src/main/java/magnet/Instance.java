@@ -119,6 +119,10 @@ public @interface Instance {
      * annotated instance if Build.VERSION.SDK_INT &gt;= 28. For the other versions
      * <code>null</code> is returned. Make sure to use optional injection to handle
      * this case.
+     * <p>
+     * Expressions can be combined using <code>&amp;&amp;</code>, <code>||</code>,
+     * <code>!</code> and parentheses, e.g.
+     * <code>android.api &gt;= 26 &amp;&amp; features.newPipeline == true</code>.
      */
     String selector() default SelectorFilter.DEFAULT_SELECTOR;
 
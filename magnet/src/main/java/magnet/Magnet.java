@@ -26,4 +26,22 @@ public final class Magnet {
     public static @NotNull Scope createRootScope() {
         return InternalFactory.createRootScope();
     }
+
+    /**
+     * Creates root scope, which together with all its subscopes can be used for
+     * resolving instances from multiple threads. Scoped instances are created
+     * once per key, threads requesting the same key wait for its creation.
+     */
+    public static @NotNull Scope createConcurrentRootScope() {
+        return InternalFactory.createConcurrentRootScope();
+    }
+
+    /**
+     * Makes root scopes fail, when the registry generated for the {@link Registry}-annotated
+     * class can neither be found in classpath nor has been installed using its generated
+     * {@code install()} method. Without this call scopes are created with an empty registry.
+     */
+    public static void requireRegistry() {
+        InternalFactory.requireRegistry();
+    }
 }
@@ -26,7 +26,19 @@ import static java.lang.annotation.RetentionPolicy.CLASS;
  * This marker annotation instructs Magnet to generate a registry indexing all
  * instances available in classpath. Index applies to sources as well as libraries.
  * Apply this annotation to any interface or class in your main application module.
+ *
+ * <p>By default the registry creates all instance factories when the first scope
+ * is created. Set {@link #lazyFactories()} to <code>true</code> for the registry to
+ * create factories on their first use, so that factories of instances which are
+ * never requested are not even loaded.
  */
 @Retention(CLASS)
 @Target({ElementType.TYPE})
-public @interface Registry {}
+public @interface Registry {
+
+    /**
+     * Registry creates instance factories on their first use when this flag is set to <code>true</code>.
+     */
+    boolean lazyFactories() default false;
+
+}
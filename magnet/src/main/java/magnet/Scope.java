@@ -110,6 +110,26 @@ public interface Scope {
     /** Returns a list of objects or empty list, if no objects were found. */
     @NotNull <T> List<T> getMany(@NotNull Class<T> type, @NotNull String classifier);
 
+    /**
+     * Returns a list of objects or empty list, if no objects were found. Unlike {@link #getMany(Class)},
+     * objects are created and scoped when their elements are read first. The list is not thread-safe.
+     * The list has the same elements as getMany(). Objects of factories, which may provide
+     * no object, like static methods or custom factories, are created together with the list.
+     */
+    @NotNull default <T> List<T> getManyLazily(@NotNull Class<T> type) {
+        return getManyLazily(type, Classifier.NONE);
+    }
+
+    /**
+     * Returns a list of objects or empty list, if no objects were found. Unlike {@link #getMany(Class, String)},
+     * objects are created and scoped when their elements are read first. The list is not thread-safe.
+     * The list has the same elements as getMany(). Objects of factories, which may provide
+     * no object, like static methods or custom factories, are created together with the list.
+     */
+    @NotNull default <T> List<T> getManyLazily(@NotNull Class<T> type, @NotNull String classifier) {
+        return getMany(type, classifier);
+    }
+
     /** Binds given instance into this scope. */
     @NotNull <T> Scope bind(@NotNull Class<T> type, @NotNull T instance);
 
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Selector expression of an {@link Instance}, parsed and validated by the annotation
+ * processor. An expression is either a clause, which is evaluated by a
+ * {@link SelectorFilter}, or a boolean combination of other expressions. Operators
+ * and operands of a clause are available as constants, so that a selector filter
+ * does not need to parse them at runtime.
+ */
+public final class Selector {
+
+    public static final int CLAUSE = 0;
+    public static final int AND = 1;
+    public static final int OR = 2;
+    public static final int NOT = 3;
+
+    public static final int EQUAL = 0;
+    public static final int NOT_EQUAL = 1;
+    public static final int GREATER = 2;
+    public static final int GREATER_OR_EQUAL = 3;
+    public static final int LESS = 4;
+    public static final int LESS_OR_EQUAL = 5;
+    public static final int IN = 6;
+    public static final int NOT_IN = 7;
+
+    private static final String[] OPERATORS = {"==", "!=", ">", ">=", "<", "<=", "in", "!in"};
+    private static final Selector[] NO_EXPRESSIONS = new Selector[0];
+
+    /** One of {@link #CLAUSE}, {@link #AND}, {@link #OR} or {@link #NOT}. */
+    public final int type;
+
+    /** Combined expressions of {@link #AND}, {@link #OR} and {@link #NOT} types. Empty for clauses. */
+    public final @NotNull Selector[] expressions;
+
+    /** Id of the selector filter, e.g. <code>android</code> in <code>android.api &gt;= 28</code>. */
+    public final @NotNull String filter;
+
+    /** Key evaluated by the selector filter, e.g. <code>api</code> in <code>android.api &gt;= 28</code>. */
+    public final @NotNull String key;
+
+    /** One of the operator constants declared in this class. */
+    public final int operator;
+
+    /** First operand as it was written in the selector. */
+    public final @NotNull String operand;
+
+    /** First operand, if it is an integer, or <code>0</code> otherwise. */
+    public final int intOperand;
+
+    /** Second operand of {@link #IN} and {@link #NOT_IN} operators as it was written, or empty string otherwise. */
+    public final @NotNull String operand2;
+
+    /** Second operand of {@link #IN} and {@link #NOT_IN} operators, if it is an integer, or <code>0</code> otherwise. */
+    public final int intOperand2;
+
+    /** First operand, if it is a boolean (written in any case), or <code>false</code> otherwise. */
+    public final boolean booleanOperand;
+
+    private @Nullable String[] arguments;
+
+    private Selector(int type, @NotNull Selector[] expressions) {
+        this.type = type;
+        this.expressions = expressions;
+        this.filter = "";
+        this.key = "";
+        this.operator = -1;
+        this.operand = "";
+        this.operand2 = "";
+        this.intOperand = 0;
+        this.intOperand2 = 0;
+        this.booleanOperand = false;
+    }
+
+    private Selector(
+        @NotNull String filter,
+        @NotNull String key,
+        int operator,
+        @NotNull String operand,
+        @NotNull String operand2,
+        int intOperand,
+        int intOperand2,
+        boolean booleanOperand
+    ) {
+        this.type = CLAUSE;
+        this.expressions = NO_EXPRESSIONS;
+        this.filter = filter;
+        this.key = key;
+        this.operator = operator;
+        this.operand = operand;
+        this.operand2 = operand2;
+        this.intOperand = intOperand;
+        this.intOperand2 = intOperand2;
+        this.booleanOperand = booleanOperand;
+    }
+
+    public static @NotNull Selector clause(
+        @NotNull String filter, @NotNull String key, int operator, int operand
+    ) {
+        return new Selector(filter, key, operator, String.valueOf(operand), "", operand, 0, false);
+    }
+
+    public static @NotNull Selector clause(
+        @NotNull String filter, @NotNull String key, int operator, int operand1, int operand2
+    ) {
+        return new Selector(
+            filter, key, operator, String.valueOf(operand1), String.valueOf(operand2), operand1, operand2, false
+        );
+    }
+
+    public static @NotNull Selector clause(
+        @NotNull String filter, @NotNull String key, int operator, boolean operand
+    ) {
+        return new Selector(filter, key, operator, String.valueOf(operand), "", 0, 0, operand);
+    }
+
+    public static @NotNull Selector clause(
+        @NotNull String filter, @NotNull String key, int operator, @NotNull String operand
+    ) {
+        return new Selector(filter, key, operator, operand, "", 0, 0, "true".equalsIgnoreCase(operand));
+    }
+
+    public static @NotNull Selector clause(
+        @NotNull String filter, @NotNull String key, int operator, @NotNull String operand1, @NotNull String operand2
+    ) {
+        return new Selector(filter, key, operator, operand1, operand2, 0, 0, false);
+    }
+
+    /** Combines expressions, so that the result is true if all of them are true. */
+    public static @NotNull Selector and(@NotNull Selector... expressions) {
+        return new Selector(AND, expressions);
+    }
+
+    /** Combines expressions, so that the result is true if any of them is true. */
+    public static @NotNull Selector or(@NotNull Selector... expressions) {
+        return new Selector(OR, expressions);
+    }
+
+    /** Negates the expression. */
+    public static @NotNull Selector not(@NotNull Selector expression) {
+        return new Selector(NOT, new Selector[]{expression});
+    }
+
+    /**
+     * Returns the clause split into parts, as expected by {@link SelectorFilter#filter(String[])}.
+     * Combined expressions cannot be represented this way.
+     */
+    public @NotNull String[] toArray() {
+        if (type != CLAUSE) {
+            throw new IllegalStateException(
+                String.format("Selector '%s' is not a clause and cannot be converted to array.", this)
+            );
+        }
+        String[] arguments = this.arguments;
+        if (arguments == null) {
+            arguments = operator == IN || operator == NOT_IN
+                ? new String[]{filter, key, OPERATORS[operator], operand, operand2}
+                : new String[]{filter, key, OPERATORS[operator], operand};
+            this.arguments = arguments;
+        }
+        return arguments;
+    }
+
+    @Override
+    public String toString() {
+        if (type == NOT) {
+            return "!" + expressions[0];
+        } else if (type != CLAUSE) {
+            StringBuilder builder = new StringBuilder().append('(');
+            for (int i = 0; i < expressions.length; i++) {
+                if (i > 0) builder.append(type == AND ? " && " : " || ");
+                builder.append(expressions[i]);
+            }
+            return builder.append(')').toString();
+        }
+        String[] arguments = toArray();
+        StringBuilder builder = new StringBuilder()
+            .append(filter).append('.').append(key)
+            .append(' ').append(arguments[2])
+            .append(' ').append(operand);
+        if (arguments.length > 4) {
+            builder.append("..").append(arguments[4]);
+        }
+        return builder.toString();
+    }
+}
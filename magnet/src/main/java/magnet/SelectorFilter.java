@@ -18,10 +18,48 @@ package magnet;
 
 import org.jetbrains.annotations.NotNull;
 
-/** Selector handler for processing {@link Instance#selector()} value at runtime. */
+/**
+ * Selector handler for processing {@link Instance#selector()} value at runtime.
+ *
+ * <p>Scopes cache the result of {@link #filter(String[])} per instance factory. Filters,
+ * which results depend on values changing at runtime, must call {@link #invalidate()}
+ * whenever those values change.
+ */
 public abstract class SelectorFilter {
 
     public static final String DEFAULT_SELECTOR = "";
+    private volatile int generation;
+
     public abstract boolean filter(@NotNull String[] selector);
 
+    /**
+     * Filters selector compiled by the annotation processor. Default implementation
+     * delegates to {@link #filter(String[])}. Override this method to avoid parsing
+     * selector values at runtime.
+     */
+    public boolean filter(@NotNull Selector selector) {
+        return filter(selector.toArray());
+    }
+
+    /** Drops all cached results of this filter. Next time selectors will be filtered again. */
+    protected final void invalidate() {
+        synchronized (this) {
+            generation++;
+        }
+    }
+
+    /** Returns a number, which changes every time the filter gets invalidated. */
+    public final int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns a number, which changes every time the result of given clause may change.
+     * Filters can override this method to invalidate results of affected clauses only.
+     * Default implementation returns {@link #getGeneration()}.
+     */
+    public int getGeneration(@NotNull Selector selector) {
+        return generation;
+    }
+
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/*
+ * Table of instance buckets keyed by int ids assigned by Keys. Buckets are stored
+ * densely in registration order, an open-addressing index (kept at most half full)
+ * maps keys to their slots.
+ *
+ * Subject to change. For internal use only.
+ */
+@SuppressWarnings("rawtypes")
+final class BucketTable {
+
+    /** Shared table of scopes having no buckets yet. It must never be modified. */
+    static final BucketTable EMPTY = new BucketTable(0);
+
+    private static final int MIN_CAPACITY = 2;
+
+    private int[] index;
+    private int[] keys;
+    private InstanceBucket[] buckets;
+    private int size;
+
+    private BucketTable(@NotNull BucketTable other) {
+        index = other.index.clone();
+        keys = other.keys.clone();
+        buckets = other.buckets.clone();
+        size = other.size;
+    }
+
+    BucketTable(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize) capacity <<= 1;
+        index = new int[capacity << 1];
+        keys = new int[capacity];
+        buckets = new InstanceBucket[capacity];
+    }
+
+    @Nullable InstanceBucket get(int key) {
+        int[] index = this.index;
+        int mask = index.length - 1;
+        for (int position = hash(key) & mask; ; position = (position + 1) & mask) {
+            int slot = index[position] - 1;
+            if (slot < 0) return null;
+            if (keys[slot] == key) return buckets[slot];
+        }
+    }
+
+    void put(int key, @NotNull InstanceBucket bucket) {
+        int mask = index.length - 1;
+        for (int position = hash(key) & mask; ; position = (position + 1) & mask) {
+            int slot = index[position] - 1;
+            if (slot < 0) {
+                if (size == buckets.length) {
+                    resize(buckets.length << 1);
+                    put(key, bucket);
+                    return;
+                }
+                keys[size] = key;
+                buckets[size] = bucket;
+                index[position] = ++size;
+                return;
+            }
+            if (keys[slot] == key) {
+                buckets[slot] = bucket;
+                return;
+            }
+        }
+    }
+
+    int size() { return size; }
+
+    int capacity() { return buckets.length; }
+
+    boolean isEmpty() { return size == 0; }
+
+    /** Returns a copy of this table, which can be modified without affecting this table. */
+    @NotNull BucketTable copy() { return new BucketTable(this); }
+
+    /** Returns bucket at given slot. Slots are numbered from 0 to size - 1 in registration order. */
+    @NotNull InstanceBucket bucketAt(int slot) { return buckets[slot]; }
+
+    private void resize(int capacity) {
+        int[] newKeys = new int[capacity];
+        InstanceBucket[] newBuckets = new InstanceBucket[capacity];
+        System.arraycopy(keys, 0, newKeys, 0, size);
+        System.arraycopy(buckets, 0, newBuckets, 0, size);
+        keys = newKeys;
+        buckets = newBuckets;
+
+        index = new int[capacity << 1];
+        int mask = index.length - 1;
+        for (int slot = 0; slot < size; slot++) {
+            int position = hash(keys[slot]) & mask;
+            while (index[position] != 0) position = (position + 1) & mask;
+            index[position] = slot + 1;
+        }
+    }
+
+    static int hash(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/*
+ * Factories of the index. The generated index either provides all factories upfront or
+ * overrides create(int) to instantiate a factory when its slot is used for the first
+ * time. Lazy slots avoid loading factory classes, which are never resolved. For this
+ * reason create(int) returns Object: verifying a method, which returns a factory as
+ * InstanceFactory, loads the factory class to check that it is assignable.
+ *
+ * Subject to change. For internal use only.
+ */
+@SuppressWarnings("rawtypes")
+abstract class FactorySlots {
+
+    private final @NotNull InstanceFactory[] factories;
+
+    FactorySlots(int size) {
+        this(new InstanceFactory[size]);
+    }
+
+    private FactorySlots(@NotNull InstanceFactory[] factories) {
+        this.factories = factories;
+    }
+
+    /** Creates factory for given slot or returns null, if the slot is unknown. */
+    abstract @Nullable Object create(int slot);
+
+    @NotNull InstanceFactory get(int slot) {
+        InstanceFactory factory = factories[slot];
+        return factory != null ? factory : createAt(slot);
+    }
+
+    /** Creates missing factories of given range and returns array of all factories. */
+    @NotNull InstanceFactory[] fill(int from, int count) {
+        for (int slot = from, afterLast = from + count; slot < afterLast; slot++) {
+            get(slot);
+        }
+        return factories;
+    }
+
+    int size() { return factories.length; }
+
+    private synchronized @NotNull InstanceFactory createAt(int slot) {
+        InstanceFactory factory = factories[slot];
+        if (factory == null) {
+            factory = (InstanceFactory) create(slot);
+            if (factory == null) {
+                throw new IllegalStateException(
+                    String.format("Index has no factory for slot %s", slot)
+                );
+            }
+            factories[slot] = factory;
+        }
+        return factory;
+    }
+
+    static @NotNull FactorySlots of(@NotNull InstanceFactory[] factories) {
+        return new Eager(factories);
+    }
+
+    private static final class Eager extends FactorySlots {
+        Eager(@NotNull InstanceFactory[] factories) {
+            super(factories);
+        }
+
+        @Override @Nullable Object create(int slot) {
+            return null;
+        }
+    }
+}
@@ -22,21 +22,30 @@ import java.util.AbstractList;
 class ImmutableArrayList<E> extends AbstractList<E> {
 
     private final E[] elements;
+    private final int from;
+    private final int size;
 
     ImmutableArrayList(E[] elements) {
+        this(elements, 0, elements.length);
+    }
+
+    /** Creates a view of the given part of the array. The array must not be modified afterwards. */
+    ImmutableArrayList(E[] elements, int from, int size) {
         this.elements = elements;
+        this.from = from;
+        this.size = size;
     }
 
     @Override public E get(int i) {
-        if (i < 0 || i >= elements.length) {
+        if (i < 0 || i >= size) {
             throw new IndexOutOfBoundsException(
                     String.format(
-                            "Cannot find element with index %s, array length: %s", i, elements.length));
+                            "Cannot find element with index %s, array length: %s", i, size));
         }
-        return elements[i];
+        return elements[from + i];
     }
 
     @Override public int size() {
-        return elements.length;
+        return size;
     }
 }
@@ -15,5 +15,11 @@ public @interface Index {
     Class factoryClass();
     String instanceType();
     String classifier();
+    String limit() default "";
+
+    /* Instance types, classifiers and limits of dispatched factories ordered by factory id. */
+    String[] instanceTypes() default {};
+    String[] classifiers() default {};
+    String[] limits() default {};
 
 }
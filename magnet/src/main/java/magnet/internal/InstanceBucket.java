@@ -19,23 +19,38 @@ package magnet.internal;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 
 import magnet.Scoping;
 import magnet.Visitor;
 
-/* Subject to change. For internal use only. */
+/*
+ * Bucket of instances registered in a scope for a key. All instances of a bucket share
+ * the object type and classifier of the key, so the bucket stores them once and keeps
+ * only factories and objects per instance. A null factory marks a bound object.
+ *
+ * Buckets mostly hold exactly one instance, which is kept in plain fields, so that the
+ * common lookup is a field read. Buckets holding many instances take a separate path.
+ * Visitor.Instance views are created when a visitor runs.
+ *
+ * Subject to change. For internal use only.
+ */
 @SuppressWarnings("unchecked")
 final class InstanceBucket<T> {
 
     @NotNull private final OnInstanceListener listener;
-    @NotNull private InstanceBucket.Instance instance;
+    @NotNull private final Class<T> objectType;
+    @NotNull private final String classifier;
     @NotNull private MagnetScope scope;
 
+    /* Either single instance fields or many are set. */
+    @Nullable private InstanceFactory<T> singleFactory;
+    @Nullable private T singleObject;
+    @Nullable private Object singleFactoryKey;
+    @Nullable private MultiObjectInstance<T> many;
+
     InstanceBucket(
         @NotNull MagnetScope scope,
         @Nullable InstanceFactory<T> factory,
@@ -46,51 +61,53 @@ final class InstanceBucket<T> {
     ) {
         this.scope = scope;
         this.listener = listener;
-        this.instance = createSingleInstance(factory, objectType, object, classifier);
+        this.objectType = objectType;
+        this.classifier = classifier;
+        setSingle(factory, object);
+        onInstanceCreated(factory, object);
+    }
+
+    private InstanceBucket(@NotNull InstanceBucket<T> other) {
+        this.scope = other.scope;
+        this.listener = other.listener;
+        this.objectType = other.objectType;
+        this.classifier = other.classifier;
+        if (other.many == null) {
+            this.singleFactory = other.singleFactory;
+            this.singleObject = other.singleObject;
+            this.singleFactoryKey = other.singleFactoryKey;
+        } else {
+            this.many = new MultiObjectInstance<>(other.many);
+        }
     }
 
     @NotNull MagnetScope getScope() { return scope; }
 
     @NotNull T getSingleInstance() {
-        if (instance instanceof InjectedInstance) {
-            return ((InjectedInstance<T>) instance).object;
-        } else if (instance instanceof BoundInstance) {
-            return ((BoundInstance<T>) instance).object;
-        }
-
-        MultiObjectInstance multiObjectInstance = (MultiObjectInstance) instance;
+        T object = singleObject;
+        if (object != null) return object;
         throw new IllegalStateException(
             String.format(
                 "Single instance requested, while many instances are stored: %s",
-                multiObjectInstance.instances
+                many
             )
         );
     }
 
-    @Nullable T getOptional(@Nullable Class<InstanceFactory<T>> factoryType) {
-        if (instance instanceof InjectedInstance) {
-            InjectedInstance<T> single = (InjectedInstance<T>) instance;
-            if (single.factory.getClass() == factoryType) {
-                return single.object;
-            }
-            return null;
-        } else if (instance instanceof BoundInstance) {
-            BoundInstance<T> single = (BoundInstance<T>) instance;
-            if (factoryType == null) {
-                return single.object;
-            }
-            return null;
+    @Nullable T getOptional(@Nullable Object factoryKey) {
+        MultiObjectInstance<T> many = this.many;
+        if (many == null) {
+            return singleFactoryKey == factoryKey ? singleObject : null;
         }
-        return (T) ((MultiObjectInstance) instance).getOptional(factoryType);
+        return many.getOptional(factoryKey);
     }
 
     @NotNull List<T> getMany() {
-        if (instance instanceof InjectedInstance) {
-            return Collections.singletonList(((InjectedInstance<T>) instance).object);
-        } else if (instance instanceof BoundInstance) {
-            return Collections.singletonList(((BoundInstance<T>) instance).object);
+        MultiObjectInstance<T> many = this.many;
+        if (many == null) {
+            return Collections.singletonList(singleObject);
         }
-        return ((MultiObjectInstance<T>) instance).getMany();
+        return many.getMany();
     }
 
     void registerObject(
@@ -99,55 +116,79 @@ final class InstanceBucket<T> {
         @NotNull T object,
         @NotNull String classifier
     ) {
-        if (this.instance instanceof InstanceBucket.MultiObjectInstance) {
-            MultiObjectInstance<T> many = (MultiObjectInstance<T>) this.instance;
-            many.putSingle(createSingleInstance(factory, objectType, object, classifier));
-
-        } else {
-            MultiObjectInstance<T> many = new MultiObjectInstance<>((SingleObjectInstance<T>) this.instance);
-            many.putSingle(createSingleInstance(factory, objectType, object, classifier));
-            this.instance = many;
+        MultiObjectInstance<T> many = this.many;
+        if (many == null) {
+            many = new MultiObjectInstance<>(singleFactoryKey, singleFactory, singleObject);
+            this.many = many;
+            singleFactory = null;
+            singleObject = null;
+            singleFactoryKey = null;
         }
+        many.put(factoryKey(factory), factory, object);
+        onInstanceCreated(factory, object);
     }
 
-    boolean hasInstanceWithFactory(@Nullable InstanceFactory<T> factory) {
-        return instance.hasObjectWithFactory(factory);
-    }
-
-    private @NotNull InstanceBucket.SingleObjectInstance<T> createSingleInstance(
+    /** Returns a copy of this bucket with given object registered in it. This bucket stays unchanged. */
+    @NotNull InstanceBucket<T> copyWithObject(
         @Nullable InstanceFactory<T> factory,
         @NotNull Class<T> objectType,
         @NotNull T object,
         @NotNull String classifier
     ) {
-        SingleObjectInstance single;
-        if (factory == null) {
-            single = new BoundInstance<>(objectType, object, classifier);
-        } else {
-            single = new InjectedInstance<>(factory, objectType, object, classifier);
+        InstanceBucket<T> bucket = new InstanceBucket<>(this);
+        bucket.registerObject(factory, objectType, object, classifier);
+        return bucket;
+    }
+
+    boolean hasInstanceWithFactory(@Nullable InstanceFactory<T> factory) {
+        MultiObjectInstance<T> many = this.many;
+        if (many == null) {
+            return singleFactory == null || singleFactory == factory;
         }
-        listener.onInstanceCreated(single);
-        return single;
+        return many.indexOf(factoryKey(factory)) >= 0;
     }
 
     public boolean accept(Visitor visitor) {
-        if (instance instanceof SingleObjectInstance) {
-            return ((SingleObjectInstance) instance).accept(visitor);
-        } else {
-            return ((MultiObjectInstance) instance).accept(visitor);
+        MultiObjectInstance<T> many = this.many;
+        if (many == null) {
+            return visitor.onInstance(createInstanceView(singleFactory, singleObject));
+        }
+        for (int i = 0, size = many.size; i < size; i++) {
+            if (!visitor.onInstance(createInstanceView(many.factories[i], (T) many.objects[i]))) {
+                return false;
+            }
         }
+        return true;
     }
 
-    interface Instance<T> {
-        boolean hasObjectWithFactory(@Nullable InstanceFactory<T> factory);
+    private void setSingle(@Nullable InstanceFactory<T> factory, @NotNull T object) {
+        singleFactory = factory;
+        singleObject = object;
+        singleFactoryKey = factoryKey(factory);
     }
 
-    static abstract class SingleObjectInstance<T> implements Instance<T> {
+    private void onInstanceCreated(@Nullable InstanceFactory<T> factory, @NotNull T object) {
+        if (factory != null) {
+            listener.onInstanceCreated(factory, object);
+        }
+    }
+
+    private @NotNull Visitor.Instance createInstanceView(@Nullable InstanceFactory<T> factory, @NotNull T object) {
+        return factory == null
+            ? new BoundInstance<>(objectType, object, classifier)
+            : new InjectedInstance<>(factory, objectType, object, classifier);
+    }
+
+    private static @Nullable Object factoryKey(@Nullable InstanceFactory factory) {
+        return factory == null ? null : InstanceFactory.getFactoryKey(factory);
+    }
+
+    static abstract class InstanceView<T> implements Visitor.Instance {
         final @NotNull Class<T> objectType;
         final @NotNull T object;
         final @NotNull String classifier;
 
-        SingleObjectInstance(
+        InstanceView(
             @NotNull Class<T> objectType,
             @NotNull T object,
             @NotNull String classifier
@@ -157,34 +198,24 @@ final class InstanceBucket<T> {
             this.classifier = classifier;
         }
 
-        public boolean accept(Visitor visitor) {
-            if (this instanceof InjectedInstance) {
-                return visitor.onInstance((InjectedInstance) this);
-            } else {
-                return visitor.onInstance((BoundInstance) this);
-            }
-        }
+        @Override public @NotNull String getClassifier() { return classifier; }
+        @Override public @NotNull Class<?> getType() { return objectType; }
+        @Override public @NotNull Object getValue() { return object; }
     }
 
-    static class BoundInstance<T> extends SingleObjectInstance<T> implements Visitor.Instance {
+    static final class BoundInstance<T> extends InstanceView<T> {
         BoundInstance(@NotNull Class<T> objectType, @NotNull T object, @NotNull String classifier) {
             super(objectType, object, classifier);
         }
 
-        @Override public boolean hasObjectWithFactory(@Nullable InstanceFactory<T> factory) {
-            return true;
-        }
         @Override public @NotNull Scoping getScoping() { return Scoping.DIRECT; }
-        @Override public @NotNull String getClassifier() { return classifier; }
         @Override public @NotNull String getLimit() { return ""; }
-        @Override public @NotNull Class<?> getType() { return objectType; }
-        @Override public @NotNull Object getValue() { return object; }
         @Override public @NotNull Visitor.Provision getProvision() {
             return Visitor.Provision.BOUND;
         }
     }
 
-    static class InjectedInstance<T> extends SingleObjectInstance<T> implements Visitor.Instance {
+    static final class InjectedInstance<T> extends InstanceView<T> {
         @NotNull final InstanceFactory<T> factory;
 
         InjectedInstance(
@@ -197,69 +228,90 @@ final class InstanceBucket<T> {
             this.factory = factory;
         }
 
-        @Override public boolean hasObjectWithFactory(@Nullable InstanceFactory<T> factory) {
-            return factory == this.factory;
-        }
-        @Override public @NotNull Scoping getScoping() { return factory.getScoping(); }
-        @Override public @NotNull String getClassifier() { return classifier; }
-        @Override public @NotNull String getLimit() { return factory.getLimit(); }
-        @Override public @NotNull Class<?> getType() { return objectType; }
-        @Override public @NotNull Object getValue() { return object; }
+        @Override public @NotNull Scoping getScoping() { return InstanceFactory.scopingOf(factory); }
+        @Override public @NotNull String getLimit() { return InstanceFactory.limitOf(factory); }
         @Override public @NotNull Visitor.Provision getProvision() {
             return Visitor.Provision.INJECTED;
         }
     }
 
-    private static class MultiObjectInstance<T> implements Instance<T> {
-        private final @NotNull HashMap<Class<InstanceFactory<T>>, SingleObjectInstance<T>> instances;
+    /*
+     * Buckets rarely hold more than a few instances, so they are kept in parallel arrays
+     * and looked up by a linear identity scan of factory keys in registration order.
+     */
+    private static class MultiObjectInstance<T> {
+        private static final int MIN_CAPACITY = 4;
+
+        private @NotNull Object[] factoryKeys;
+        private @NotNull InstanceFactory<T>[] factories;
+        private @NotNull Object[] objects;
+        private int size;
+        private @Nullable List<T> many;
+
+        MultiObjectInstance(
+            @Nullable Object factoryKey,
+            @Nullable InstanceFactory<T> factory,
+            @NotNull T object
+        ) {
+            factoryKeys = new Object[MIN_CAPACITY];
+            factories = new InstanceFactory[MIN_CAPACITY];
+            objects = new Object[MIN_CAPACITY];
+            put(factoryKey, factory, object);
+        }
 
-        MultiObjectInstance(@NotNull InstanceBucket.SingleObjectInstance<T> single) {
-            instances = new HashMap<>(8);
-            putSingle(single);
+        MultiObjectInstance(@NotNull MultiObjectInstance<T> other) {
+            factoryKeys = other.factoryKeys.clone();
+            factories = other.factories.clone();
+            objects = other.objects.clone();
+            size = other.size;
+            many = other.many;
         }
 
+        /** Returns immutable list of objects, which is created again after next registration only. */
         @NotNull List<T> getMany() {
-            List<T> result = new ArrayList<>(this.instances.size());
-            for (SingleObjectInstance<T> single : this.instances.values()) {
-                result.add(single.object);
+            List<T> many = this.many;
+            if (many == null) {
+                many = new ImmutableArrayList<>((T[]) Arrays.copyOf(objects, size));
+                this.many = many;
             }
-            return result;
+            return many;
         }
 
-        @Nullable T getOptional(@Nullable Class<InstanceFactory<T>> factoryType) {
-            SingleObjectInstance<T> single = instances.get(factoryType);
-            if (single == null) return null;
-            return single.object;
+        @Nullable T getOptional(@Nullable Object factoryKey) {
+            int index = indexOf(factoryKey);
+            return index < 0 ? null : (T) objects[index];
         }
 
-        void putSingle(@NotNull InstanceBucket.SingleObjectInstance<T> single) {
-            @Nullable final Class<InstanceFactory<T>> factoryType;
-            if (single instanceof InjectedInstance) {
-                factoryType = (Class<InstanceFactory<T>>) ((InjectedInstance) single).factory.getClass();
-            } else if (single instanceof BoundInstance) {
-                factoryType = null;
-            } else {
-                throw new IllegalStateException("Unsupported SingleObjectInstance type.");
+        void put(@Nullable Object factoryKey, @Nullable InstanceFactory<T> factory, @NotNull T object) {
+            int index = indexOf(factoryKey);
+            if (index < 0) {
+                if (size == objects.length) {
+                    factoryKeys = Arrays.copyOf(factoryKeys, size << 1);
+                    factories = Arrays.copyOf(factories, size << 1);
+                    objects = Arrays.copyOf(objects, size << 1);
+                }
+                index = size++;
+                factoryKeys[index] = factoryKey;
             }
-            instances.put(factoryType, single);
+            factories[index] = factory;
+            objects[index] = object;
+            many = null;
         }
 
-        @Override public boolean hasObjectWithFactory(@Nullable InstanceFactory<T> factory) {
-            return instances.containsKey(factory == null ? null : factory.getClass());
+        int indexOf(@Nullable Object factoryKey) {
+            Object[] factoryKeys = this.factoryKeys;
+            for (int i = 0; i < size; i++) {
+                if (factoryKeys[i] == factoryKey) return i;
+            }
+            return -1;
         }
 
-        public boolean accept(Visitor visitor) {
-            Collection<SingleObjectInstance<T>> singleObjectInstances = instances.values();
-            boolean takeNext = true;
-            for (SingleObjectInstance<T> instance : singleObjectInstances) {
-                takeNext = instance.accept(visitor);
-                if (!takeNext) break;
-            }
-            return takeNext;
+        @Override public String toString() {
+            return getMany().toString();
         }
     }
 
     interface OnInstanceListener {
-        <T> void onInstanceCreated(SingleObjectInstance<T> instance);
+        <T> void onInstanceCreated(@NotNull InstanceFactory<T> factory, @NotNull T object);
     }
-}
\ No newline at end of file
+}
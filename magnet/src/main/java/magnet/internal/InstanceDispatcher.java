@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Scope;
+import magnet.Scoping;
+import magnet.Selector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/*
+ * Creates instances of many factories of a package through a single generated class.
+ * Metadata of the factories is kept in shared tables indexed by factory id. A null table
+ * means all factories use the default value. Factories created from a dispatcher share
+ * one class, so each of them gets its own factory key.
+ *
+ * Subject to change. For internal use only.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public abstract class InstanceDispatcher {
+
+    private final @NotNull Class[] types;
+    private final @NotNull Scoping[] scopings;
+    private final @Nullable String[] limits;
+    private final @Nullable Selector[] selectors;
+    private final @Nullable boolean[] disposables;
+    private final @Nullable boolean[] nullables;
+
+    protected InstanceDispatcher(
+        @NotNull Class[] types,
+        @NotNull Scoping[] scopings,
+        @Nullable String[] limits,
+        @Nullable Selector[] selectors,
+        @Nullable boolean[] disposables
+    ) {
+        this(types, scopings, limits, selectors, disposables, null);
+    }
+
+    protected InstanceDispatcher(
+        @NotNull Class[] types,
+        @NotNull Scoping[] scopings,
+        @Nullable String[] limits,
+        @Nullable Selector[] selectors,
+        @Nullable boolean[] disposables,
+        @Nullable boolean[] nullables
+    ) {
+        this.types = types;
+        this.scopings = scopings;
+        this.limits = limits;
+        this.selectors = selectors;
+        this.disposables = disposables;
+        this.nullables = nullables;
+    }
+
+    public abstract Object create(int id, Scope scope);
+
+    public void dispose(int id, Object instance) {
+        throw new IllegalStateException(
+            String.format("Instance %s is not disposable", instance)
+        );
+    }
+
+    // called by generated index class
+    public final @NotNull Class getType(int id) {
+        return types[id];
+    }
+
+    // called by generated index class
+    public final @NotNull InstanceFactory getFactory(int id) {
+        if (id < 0 || id >= types.length) {
+            throw new IllegalStateException(
+                String.format("Dispatcher %s has no factory with id %s", this, id)
+            );
+        }
+        return new DispatchedInstanceFactory(this, id);
+    }
+
+    private static final class DispatchedInstanceFactory extends InstanceFactory<Object> {
+        private final @NotNull InstanceDispatcher dispatcher;
+        private final int id;
+
+        DispatchedInstanceFactory(@NotNull InstanceDispatcher dispatcher, int id) {
+            super(
+                new Object(),
+                dispatcher.scopings[id],
+                dispatcher.limits == null ? "" : dispatcher.limits[id],
+                null,
+                dispatcher.selectors == null ? null : dispatcher.selectors[id],
+                dispatcher.disposables != null && dispatcher.disposables[id],
+                dispatcher.nullables != null && dispatcher.nullables[id]
+            );
+            this.dispatcher = dispatcher;
+            this.id = id;
+        }
+
+        @Override public Object create(Scope scope) { return dispatcher.create(id, scope); }
+        @Override public void dispose(Object instance) { dispatcher.dispose(id, instance); }
+
+        @Override public String toString() {
+            return String.format("%s[%s]", dispatcher.getClass().getName(), id);
+        }
+    }
+}
@@ -17,21 +17,121 @@
 package magnet.internal;
 
 import magnet.Scope;
+import magnet.Selector;
 import magnet.Scoping;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-/* Subject to change. For internal use only. */
+/*
+ * Generated factories pass their metadata into the final fields of this class, so that the
+ * scope reads it with plain field loads instead of calling getters overridden in every factory.
+ * Factories created with the default constructor keep providing metadata through the getters.
+ *
+ * Subject to change. For internal use only.
+ */
 public abstract class InstanceFactory<T> {
 
+    private final Object factoryKey;
+    private final Scoping scoping;
+    private final String limit;
+    private final Class[] siblingTypes;
+    private final Selector compiledSelector;
+    private final boolean disposable;
+    private final boolean nullable;
+
+    /* Resolved sibling types, see Siblings. Safe to race, because Siblings is immutable. */
+    Siblings siblings;
+
+    public InstanceFactory() { this(null, null, "", null, null, false, false); }
+
+    protected InstanceFactory(
+        @NotNull Scoping scoping,
+        @NotNull String limit,
+        @Nullable Class[] siblingTypes,
+        @Nullable Selector compiledSelector,
+        boolean disposable
+    ) {
+        this(null, scoping, limit, siblingTypes, compiledSelector, disposable, false);
+    }
+
+    /* Factories of static methods and custom factories may provide null and pass nullable = true. */
+    protected InstanceFactory(
+        @NotNull Scoping scoping,
+        @NotNull String limit,
+        @Nullable Class[] siblingTypes,
+        @Nullable Selector compiledSelector,
+        boolean disposable,
+        boolean nullable
+    ) {
+        this(null, scoping, limit, siblingTypes, compiledSelector, disposable, nullable);
+    }
+
+    InstanceFactory(
+        @Nullable Object factoryKey,
+        @Nullable Scoping scoping,
+        @NotNull String limit,
+        @Nullable Class[] siblingTypes,
+        @Nullable Selector compiledSelector,
+        boolean disposable,
+        boolean nullable
+    ) {
+        this.factoryKey = factoryKey;
+        this.scoping = scoping;
+        this.limit = limit;
+        this.siblingTypes = siblingTypes;
+        this.compiledSelector = compiledSelector;
+        this.disposable = disposable;
+        this.nullable = nullable;
+    }
+
     public abstract T create(Scope scope);
-    public Scoping getScoping() { return Scoping.TOPMOST; }
-    public String getLimit() { return ""; }
-    public Class[] getSiblingTypes() { return null; }
+    public Scoping getScoping() { return scoping != null ? scoping : Scoping.TOPMOST; }
+    public String getLimit() { return limit; }
+    public Class[] getSiblingTypes() { return siblingTypes; }
     public String[] getSelector() { return null; }
+    public Selector getCompiledSelector() { return compiledSelector; }
 
-    public boolean isDisposable() { return false; }
+    public boolean isDisposable() { return disposable; }
+    public boolean isNullable() { return nullable; }
     public void dispose(T instance) {
         throw new IllegalStateException(
             String.format("Instance %s is not disposable", instance)
         );
     }
+
+    /**
+     * Returns key telling instances of given factory from instances of other factories of the same type.
+     * It is static and reads the field directly, so it keeps working with mocked factories.
+     */
+    static Object getFactoryKey(InstanceFactory factory) {
+        Object factoryKey = factory.factoryKey;
+        return factoryKey != null ? factoryKey : factory.getClass();
+    }
+
+    /* Accessors below read the fields, if the factory was given its metadata, or call the getters otherwise. */
+
+    static @NotNull Scoping scopingOf(@NotNull InstanceFactory factory) {
+        Scoping scoping = factory.scoping;
+        return scoping != null ? scoping : factory.getScoping();
+    }
+
+    static @NotNull String limitOf(@NotNull InstanceFactory factory) {
+        return factory.scoping != null ? factory.limit : factory.getLimit();
+    }
+
+    static @Nullable Class[] siblingTypesOf(@NotNull InstanceFactory factory) {
+        return factory.scoping != null ? factory.siblingTypes : factory.getSiblingTypes();
+    }
+
+    static @Nullable Selector compiledSelectorOf(@NotNull InstanceFactory factory) {
+        return factory.scoping != null ? factory.compiledSelector : factory.getCompiledSelector();
+    }
+
+    static boolean disposableOf(@NotNull InstanceFactory factory) {
+        return factory.scoping != null ? factory.disposable : factory.isDisposable();
+    }
+
+    static boolean nullableOf(@NotNull InstanceFactory factory) {
+        return factory.scoping != null ? factory.nullable : factory.isNullable();
+    }
 }
@@ -32,4 +32,35 @@ interface InstanceManager {
 
     <T> @NotNull List<InstanceFactory<T>> getManyInstanceFactories(
         Class<T> type, String classifier, FactoryFilter factoryFilter);
+
+    /**
+     * Returns false if no factories are indexed for given type and classifier, which
+     * lets scopes remember optional lookups of such types as misses. Implementations
+     * not overriding this method are always asked.
+     */
+    default boolean hasInstanceFactories(Class<?> type, String classifier) {
+        return true;
+    }
+
+    /*
+     * Overloads taking the key of type and classifier, which scopes compute for every
+     * lookup anyway. Implementations indexed by keys override them to avoid computing
+     * the key again. Type and classifier are still passed for error messages.
+     */
+
+    default <T> @Nullable InstanceFactory<T> getFilteredInstanceFactory(
+        Class<T> type, String classifier, int key, FactoryFilter factoryFilter
+    ) {
+        return getFilteredInstanceFactory(type, classifier, factoryFilter);
+    }
+
+    default <T> @NotNull List<InstanceFactory<T>> getManyInstanceFactories(
+        Class<T> type, String classifier, int key, FactoryFilter factoryFilter
+    ) {
+        return getManyInstanceFactories(type, classifier, factoryFilter);
+    }
+
+    default boolean hasInstanceFactories(Class<?> type, String classifier, int key) {
+        return hasInstanceFactories(type, classifier);
+    }
 }
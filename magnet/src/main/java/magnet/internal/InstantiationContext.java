@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * Stack of instantiations performed by a thread. Instantiations are stored in reusable
+ * primitive arrays and keys on the stack are marked in a bit set, so that neither
+ * tracking nor circular dependency detection allocate.
+ *
+ * Subject to change. For internal use only.
+ */
+final class InstantiationContext {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private int[] scopeDepths = new int[INITIAL_CAPACITY];
+    private int[] dependencyDepths = new int[INITIAL_CAPACITY];
+    private int[] dependencyKeys = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private long[] marks = new long[4];
+    private int endedDependencyKey = -1;
+
+    /** Begins instantiation of given key by the scope of given depth. */
+    void onBeginInstantiation(int key, int scopeDepth) {
+        if (isMarked(key)) {
+            throw createCircularDependencyException(key);
+        }
+        if (size == keys.length) {
+            grow();
+        }
+        keys[size] = key;
+        scopeDepths[size] = scopeDepth;
+        dependencyDepths[size] = 0;
+        dependencyKeys[size] = -1;
+        size++;
+        marks[key >>> 6] |= 1L << key;
+    }
+
+    /** Ends current instantiation and returns the depth of its deepest dependency. */
+    int onEndInstantiation() {
+        int index = --size;
+        int key = keys[index];
+        marks[key >>> 6] &= ~(1L << key);
+        endedDependencyKey = dependencyKeys[index];
+        return dependencyDepths[index];
+    }
+
+    /** Returns true, if an instance is being created by current thread. */
+    boolean isInstantiating() {
+        return size > 0;
+    }
+
+    /** Returns the key of the deepest dependency of the last ended instantiation or -1. */
+    int getEndedDependencyKey() {
+        return endedDependencyKey;
+    }
+
+    /*
+     * The context is shared by all scopes of a tree, hence a factory can resolve dependencies
+     * from subscopes it creates. Those dependencies are not reachable from the instantiating
+     * scope and do not affect the depth of the instance being created.
+     */
+    void onDependencyFound(int dependencyDepth, int dependencyKey) {
+        if (size == 0) return;
+        int index = size - 1;
+        if (dependencyDepth > scopeDepths[index]) return;
+        if (dependencyDepth > dependencyDepths[index]) {
+            dependencyDepths[index] = dependencyDepth;
+            dependencyKeys[index] = dependencyKey;
+        }
+    }
+
+    private boolean isMarked(int key) {
+        int word = key >>> 6;
+        if (word >= marks.length) {
+            long[] newMarks = new long[Math.max(marks.length * 2, word + 1)];
+            System.arraycopy(marks, 0, newMarks, 0, marks.length);
+            marks = newMarks;
+            return false;
+        }
+        return (marks[word] & (1L << key)) != 0;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        int[] newKeys = new int[capacity];
+        int[] newScopeDepths = new int[capacity];
+        int[] newDependencyDepths = new int[capacity];
+        int[] newDependencyKeys = new int[capacity];
+        System.arraycopy(keys, 0, newKeys, 0, size);
+        System.arraycopy(scopeDepths, 0, newScopeDepths, 0, size);
+        System.arraycopy(dependencyDepths, 0, newDependencyDepths, 0, size);
+        System.arraycopy(dependencyKeys, 0, newDependencyKeys, 0, size);
+        keys = newKeys;
+        scopeDepths = newScopeDepths;
+        dependencyDepths = newDependencyDepths;
+        dependencyKeys = newDependencyKeys;
+    }
+
+    private @NotNull IllegalStateException createCircularDependencyException(int key) {
+        StringBuilder builder = new StringBuilder()
+            .append("Dependency injection failed because of unresolved circular dependency: ");
+        for (int i = 0; i < size; i++) {
+            builder.append(Keys.toString(keys[i])).append(" -> ");
+        }
+        builder.append(Keys.toString(key));
+        return new IllegalStateException(builder.toString());
+    }
+}
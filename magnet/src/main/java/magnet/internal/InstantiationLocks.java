@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Per-key locks shared by all scopes of a concurrent scope tree. A scoped instance
+ * of a key is created by one thread at a time. Other threads requesting the same
+ * key wait for that thread to register the instance and look it up again.
+ *
+ * Subject to change. For internal use only.
+ */
+final class InstantiationLocks {
+
+    private final ConcurrentHashMap<Integer, Lock> locks = new ConcurrentHashMap<>();
+
+    /** Acquires the lock for given key or returns null, if current thread already holds it. */
+    @Nullable Lock acquire(int key) {
+        Thread thread = Thread.currentThread();
+        Lock lock = new Lock(thread);
+        while (true) {
+            Lock existing = locks.putIfAbsent(key, lock);
+            if (existing == null) return lock;
+            if (existing.owner == thread) return null;
+            existing.await();
+        }
+    }
+
+    void release(int key, @NotNull Lock lock) {
+        locks.remove(key, lock);
+        lock.signal();
+    }
+
+    static final class Lock {
+        private final @NotNull Thread owner;
+        private boolean released;
+
+        Lock(@NotNull Thread owner) {
+            this.owner = owner;
+        }
+
+        synchronized void await() {
+            boolean interrupted = false;
+            while (!released) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized void signal() {
+            released = true;
+            notifyAll();
+        }
+    }
+}
@@ -22,15 +22,54 @@ import org.jetbrains.annotations.NotNull;
 /* Subject to change. For internal use only. */
 public final class InternalFactory {
 
-    private static final InstanceManager INSTANCE_MANAGER = new MagnetInstanceManager();
+    private static final Object LOCK = new Object();
+    private static volatile MagnetInstanceManager instanceManager;
+    private static volatile boolean registryRequired;
 
     private InternalFactory() {}
 
+    /** Makes scopes fail when no generated registry can be found. */
+    public static void requireRegistry() {
+        registryRequired = true;
+    }
+
+    // called by generated index class
+    static void install(@NotNull MagnetInstanceManager instanceManager) {
+        synchronized (LOCK) {
+            if (InternalFactory.instanceManager == null) {
+                InternalFactory.instanceManager = instanceManager;
+            }
+        }
+    }
+
+    private static @NotNull InstanceManager getInstanceManager() {
+        MagnetInstanceManager instanceManager = InternalFactory.instanceManager;
+        if (instanceManager == null) {
+            synchronized (LOCK) {
+                instanceManager = InternalFactory.instanceManager;
+                if (instanceManager == null) {
+                    instanceManager = new MagnetInstanceManager();
+                    instanceManager.registerInstanceFactories(registryRequired);
+                    InternalFactory.instanceManager = instanceManager;
+                }
+            }
+        }
+        return instanceManager;
+    }
+
     static @NotNull Scope createRootScope(@NotNull InstanceManager instanceManager) {
         return new MagnetScope(null, instanceManager);
     }
 
+    static @NotNull Scope createConcurrentRootScope(@NotNull InstanceManager instanceManager) {
+        return MagnetScope.createConcurrentRootScope(instanceManager);
+    }
+
     public static @NotNull Scope createRootScope() {
-        return new MagnetScope(null, INSTANCE_MANAGER);
+        return new MagnetScope(null, getInstanceManager());
+    }
+
+    public static @NotNull Scope createConcurrentRootScope() {
+        return MagnetScope.createConcurrentRootScope(getInstanceManager());
     }
 }
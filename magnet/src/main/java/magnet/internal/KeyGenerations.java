@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+/*
+ * Per-key generation counters shared by all scopes of a scope tree. The generation
+ * of a key is incremented after a new bucket for the key is published in any scope
+ * of the tree.
+ *
+ * Subject to change. For internal use only.
+ */
+final class KeyGenerations {
+
+    private volatile int[] generations = new int[64];
+
+    int get(int key) {
+        int[] generations = this.generations;
+        return key < generations.length ? generations[key] : 0;
+    }
+
+    synchronized void increment(int key) {
+        int[] generations = this.generations;
+        if (key >= generations.length) {
+            int[] newGenerations = new int[Math.max(generations.length * 2, key + 1)];
+            System.arraycopy(generations, 0, newGenerations, 0, generations.length);
+            generations = newGenerations;
+        }
+        generations[key]++;
+        // volatile write makes the new value visible to readers
+        this.generations = generations;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Assigns dense int ids to (type, classifier) pairs. Pairs indexed by the generated
+ * MagnetIndexer receive their ids at registration time, pairs which are only bound
+ * into scopes receive the next free id on first use. Pairs of types, which the index
+ * refers to by name, reserve their ids by name and receive them on first use.
+ *
+ * Subject to change. For internal use only.
+ */
+final class Keys {
+
+    private static final ConcurrentHashMap<Class<?>, TypeKeys> TYPES = new ConcurrentHashMap<>(64);
+    private static final Object LOCK = new Object();
+
+    private static final HashMap<String, Integer> RESERVED = new HashMap<>();
+
+    private static Class<?>[] types = new Class[64];
+    /* Classifiers of registered and reserved ids. Reserved ids have no type yet. */
+    private static String[] classifiers = new String[64];
+    private static int nextId = 0;
+
+    private Keys() {}
+
+    static int id(@NotNull Class<?> type, @NotNull String classifier) {
+        TypeKeys typeKeys = TYPES.get(type);
+        if (typeKeys != null) {
+            int id = typeKeys.get(classifier);
+            if (id > -1) return id;
+        }
+        return register(type, classifier, -1);
+    }
+
+    /** Registers the pair using given id, if this id is still free. Returns the actual id of the pair. */
+    static int register(@NotNull Class<?> type, @NotNull String classifier, int preferredId) {
+        synchronized (LOCK) {
+            TypeKeys typeKeys = TYPES.get(type);
+            if (typeKeys == null) {
+                typeKeys = new TypeKeys();
+                TYPES.put(type, typeKeys);
+            }
+
+            int id = typeKeys.get(classifier);
+            if (id > -1) return id;
+
+            Integer reservedId = RESERVED.isEmpty() ? null : RESERVED.remove(reservedName(type.getName(), classifier));
+            id = reservedId != null ? reservedId : allocate(classifier, preferredId);
+            types[id] = type;
+
+            typeKeys.put(classifier, id);
+            return id;
+        }
+    }
+
+    /**
+     * Reserves id for the pair of a type given by its binary name. The type receives this id,
+     * when the pair is registered. Returns the reserved id or the id of the registered pair.
+     */
+    static int reserve(@NotNull String typeName, @NotNull String classifier, int preferredId) {
+        synchronized (LOCK) {
+            for (Class<?> type : TYPES.keySet()) {
+                if (type.getName().equals(typeName)) return register(type, classifier, preferredId);
+            }
+            String name = reservedName(typeName, classifier);
+            Integer reservedId = RESERVED.get(name);
+            if (reservedId != null) return reservedId;
+
+            int id = allocate(classifier, preferredId);
+            RESERVED.put(name, id);
+            return id;
+        }
+    }
+
+    private static int allocate(@NotNull String classifier, int preferredId) {
+        int id = preferredId > -1 && (preferredId >= types.length || classifiers[preferredId] == null)
+            ? preferredId : nextId;
+
+        if (id >= types.length) {
+            int capacity = Math.max(types.length * 2, id + 1);
+            Class<?>[] newTypes = new Class[capacity];
+            String[] newClassifiers = new String[capacity];
+            System.arraycopy(types, 0, newTypes, 0, types.length);
+            System.arraycopy(classifiers, 0, newClassifiers, 0, classifiers.length);
+            types = newTypes;
+            classifiers = newClassifiers;
+        }
+
+        classifiers[id] = classifier;
+        while (nextId < classifiers.length && classifiers[nextId] != null) nextId++;
+        return id;
+    }
+
+    private static @NotNull String reservedName(@NotNull String typeName, @NotNull String classifier) {
+        return typeName + ':' + classifier;
+    }
+
+    /** Returns human readable representation of the key. Used for error reporting only. */
+    static @NotNull String toString(int id) {
+        synchronized (LOCK) {
+            if (id < 0 || id >= types.length || types[id] == null) {
+                return String.valueOf(id);
+            }
+            String classifier = classifiers[id];
+            if (classifier.length() == 0) {
+                return types[id].getName();
+            }
+            return classifier + "@" + types[id].getName();
+        }
+    }
+
+    private static final class TypeKeys {
+        private static final String[] NO_CLASSIFIERS = new String[0];
+        private static final int[] NO_IDS = new int[0];
+
+        private volatile int none = -1;
+        private volatile Classified classified = new Classified(NO_CLASSIFIERS, NO_IDS);
+
+        int get(String classifier) {
+            if (classifier.length() == 0) {
+                return none;
+            }
+            Classified classified = this.classified;
+            String[] classifiers = classified.classifiers;
+            for (int i = 0, size = classifiers.length; i < size; i++) {
+                if (classifiers[i].equals(classifier)) return classified.ids[i];
+            }
+            return -1;
+        }
+
+        void put(String classifier, int id) {
+            if (classifier.length() == 0) {
+                none = id;
+                return;
+            }
+            Classified classified = this.classified;
+            int size = classified.classifiers.length;
+            String[] classifiers = new String[size + 1];
+            int[] ids = new int[size + 1];
+            System.arraycopy(classified.classifiers, 0, classifiers, 0, size);
+            System.arraycopy(classified.ids, 0, ids, 0, size);
+            classifiers[size] = classifier;
+            ids[size] = id;
+            this.classified = new Classified(classifiers, ids);
+        }
+    }
+
+    private static final class Classified {
+        final String[] classifiers;
+        final int[] ids;
+
+        Classified(String[] classifiers, int[] ids) {
+            this.classifiers = classifiers;
+            this.ids = ids;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/*
+ * List of objects provided by filtered factories of a key. Objects of nullable factories
+ * are created when the list is created, and their factories are dropped, if they provide
+ * no object. This way the list has the same elements as getMany(). Other objects are
+ * created and scoped when their elements are read first, and kept in the list afterwards.
+ *
+ * Subject to change. For internal use only.
+ */
+@SuppressWarnings("unchecked")
+final class LazyObjectList<T> extends AbstractList<T> implements RandomAccess {
+
+    private final @NotNull MagnetScope scope;
+    private final @NotNull Class<T> type;
+    private final @NotNull String classifier;
+    private final int key;
+    private final @NotNull InstanceFactory<T>[] factories;
+    private final @NotNull Object[] objects;
+
+    LazyObjectList(
+        @NotNull MagnetScope scope,
+        @NotNull Class<T> type,
+        @NotNull String classifier,
+        int key,
+        @NotNull List<InstanceFactory<T>> factories
+    ) {
+        this.scope = scope;
+        this.type = type;
+        this.classifier = classifier;
+        this.key = key;
+
+        int size = factories.size();
+        InstanceFactory<T>[] providingFactories = new InstanceFactory[size];
+        Object[] objects = new Object[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            InstanceFactory<T> factory = factories.get(i);
+            if (InstanceFactory.nullableOf(factory)) {
+                T object = scope.findManyObject(type, classifier, key, factory);
+                if (object == null) continue;
+                objects[count] = object;
+            }
+            providingFactories[count++] = factory;
+        }
+
+        this.factories = count == size ? providingFactories : Arrays.copyOf(providingFactories, count);
+        this.objects = count == size ? objects : Arrays.copyOf(objects, count);
+    }
+
+    @Override public T get(int i) {
+        if (i < 0 || i >= objects.length) {
+            throw new IndexOutOfBoundsException(
+                String.format(
+                    "Cannot find element with index %s, list size: %s", i, objects.length));
+        }
+        Object object = objects[i];
+        if (object == null) {
+            object = scope.getManyObject(type, classifier, key, factories[i]);
+            objects[i] = object;
+        }
+        return (T) object;
+    }
+
+    @Override public int size() {
+        return objects.length;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Assigns dense int ids to limit tags. Tags used in @Instance(limitedTo) are registered
+ * by the generated MagnetIndexer, tags which are only applied to scopes receive the
+ * next free id on first use. Scopes keep their limits as a bitmask of these ids.
+ *
+ * Subject to change. For internal use only.
+ */
+final class Limits {
+
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>(16);
+    private static final Object LOCK = new Object();
+    private static final long[] NO_MASK = new long[0];
+
+    private static int nextId = 0;
+
+    private Limits() {}
+
+    static int id(@NotNull String limit) {
+        Integer id = IDS.get(limit);
+        if (id != null) return id;
+        return register(limit);
+    }
+
+    /** Registers the limit tag and returns its id. Returns the existing id, if already registered. */
+    static int register(@NotNull String limit) {
+        synchronized (LOCK) {
+            Integer id = IDS.get(limit);
+            if (id != null) return id;
+            int newId = nextId++;
+            IDS.put(limit, newId);
+            return newId;
+        }
+    }
+
+    static @NotNull long[] mask(@NotNull String[] limits) {
+        if (limits.length == 0) return NO_MASK;
+        int[] ids = new int[limits.length];
+        int maxId = 0;
+        for (int i = 0; i < limits.length; i++) {
+            ids[i] = id(limits[i]);
+            if (ids[i] > maxId) maxId = ids[i];
+        }
+        long[] mask = new long[(maxId >>> 6) + 1];
+        for (int id : ids) {
+            mask[id >>> 6] |= 1L << id;
+        }
+        return mask;
+    }
+
+    static boolean contains(@NotNull long[] mask, int id) {
+        int word = id >>> 6;
+        return word < mask.length && (mask[word] & (1L << id)) != 0;
+    }
+}
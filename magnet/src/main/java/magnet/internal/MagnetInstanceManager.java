@@ -21,7 +21,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -29,32 +30,105 @@ import java.util.Map;
 /* Subject to change. For internal use only. */
 @SuppressWarnings("unchecked") final class MagnetInstanceManager implements InstanceManager {
 
-    private InstanceFactory[] factories;
-    private Map<Class, Object> index;
+    private static final Range[] NO_RANGES = new Range[0];
 
-    MagnetInstanceManager() {
-        registerInstanceFactories();
-    }
+    private FactorySlots factories;
+
+    /* Ranges indexed by the key of their (type, classifier) pair, see Keys. */
+    private volatile Range[] ranges = NO_RANGES;
 
-    private void registerInstanceFactories() {
+    /*
+     * Indexed ranges of non-public types, stored under the keys reserved for their pairs.
+     * Lazy index refers to these types by name, because it cannot refer to them without
+     * loading their factory classes. The ranges of a type get moved into the ranges array
+     * on the first lookup of the type. Pending ranges are cleared after the ranges array
+     * is published, so readers must read pending ranges first.
+     */
+    private volatile @Nullable Object[] pendingRanges;
+
+    /* Fallback for applications, which do not install generated registry explicitly. */
+    void registerInstanceFactories(boolean registryRequired) {
         try {
             Class<?> magnetClass = Class.forName("magnet.internal.MagnetIndexer");
             Method registerFactories = magnetClass.getMethod("register", MagnetInstanceManager.class);
             registerFactories.invoke(magnetClass, this);
         } catch (Exception e) {
-            System.err.println(
-                String.format(
-                    "MagnetIndexer cannot be found. Add a @%s-annotated class to the application module.",
-                    Registry.class
-                )
+            String message = String.format(
+                "MagnetIndexer cannot be found. Add a @%s-annotated class to the application module.",
+                Registry.class
             );
+            if (registryRequired) {
+                throw new IllegalStateException(message, e);
+            }
+            System.err.println(message);
         }
     }
 
     // called by generated index class
     void register(InstanceFactory[] factories, Map<Class, Object> index) {
+        register(FactorySlots.of(factories), index);
+    }
+
+    // called by generated index class with lazy factories
+    void register(FactorySlots factories, Map<Class, Object> index) {
+        register(factories, index, Collections.<String, Object>emptyMap());
+    }
+
+    // called by generated index class with lazy factories
+    void register(FactorySlots factories, Map<Class, Object> index, Map<String, Object> namedIndex) {
         this.factories = factories;
-        this.index = index;
+        this.ranges = indexRanges(index);
+        this.pendingRanges = namedIndex.isEmpty() ? null : indexPendingRanges(namedIndex);
+    }
+
+    private static Range[] indexRanges(Map<Class, Object> index) {
+        Range[] ranges = NO_RANGES;
+        for (Map.Entry<Class, Object> entry : index.entrySet()) {
+            ranges = putIndexed(ranges, entry.getKey(), entry.getValue());
+        }
+        return ranges;
+    }
+
+    private static Object[] indexPendingRanges(Map<String, Object> namedIndex) {
+        Object[] pendingRanges = new Object[0];
+        for (Map.Entry<String, Object> entry : namedIndex.entrySet()) {
+            Object indexed = entry.getValue();
+            Collection<Range> ranges = indexed instanceof Map
+                ? ((Map<String, Range>) indexed).values()
+                : Collections.singletonList((Range) indexed);
+            for (Range range : ranges) {
+                int key = Keys.reserve(entry.getKey(), range.getClassifier(), range.getKey());
+                if (key >= pendingRanges.length) {
+                    pendingRanges = Arrays.copyOf(pendingRanges, Math.max(key + 1, pendingRanges.length * 2));
+                }
+                pendingRanges[key] = indexed;
+            }
+        }
+        return pendingRanges;
+    }
+
+    private static Range[] putIndexed(Range[] ranges, Class type, Object indexed) {
+        if (indexed instanceof Range) {
+            return putRange(ranges, type, (Range) indexed);
+        } else if (indexed instanceof Map) {
+            for (Range range : ((Map<String, Range>) indexed).values()) {
+                ranges = putRange(ranges, type, range);
+            }
+            return ranges;
+        } else {
+            throw new IllegalStateException(
+                String.format("Unsupported index type: %s", indexed.getClass())
+            );
+        }
+    }
+
+    private static Range[] putRange(Range[] ranges, Class type, Range range) {
+        int key = Keys.register(type, range.getClassifier(), range.getKey());
+        if (key >= ranges.length) {
+            ranges = Arrays.copyOf(ranges, Math.max(key + 1, ranges.length * 2));
+        }
+        ranges[key] = range;
+        return ranges;
     }
 
     @Override
@@ -63,11 +137,11 @@ import java.util.Map;
     ) {
         Range range = getOptionalRange(instanceType, classifier);
         if (range == null) return null;
-        if (range.getCount() == 1) return factories[range.getFrom()];
+        if (range.getCount() == 1) return factories.get(range.getFrom());
 
         for (int index = range.getFrom(), afterLast = range.getFrom() + range.getCount(); index < afterLast; index++) {
-            InstanceFactory<T> candidate = factories[index];
-            if (candidate.getClass() == factoryType) {
+            InstanceFactory<T> candidate = factories.get(index);
+            if (InstanceFactory.getFactoryKey(candidate) == factoryType) {
                 return candidate;
             }
         }
@@ -78,13 +152,20 @@ import java.util.Map;
     public <T> @Nullable InstanceFactory<T> getFilteredInstanceFactory(
         Class<T> type, String classifier, FactoryFilter factoryFilter
     ) {
-        Range range = getOptionalRange(type, classifier);
+        return getFilteredInstanceFactory(type, classifier, Keys.id(type, classifier), factoryFilter);
+    }
+
+    @Override
+    public <T> @Nullable InstanceFactory<T> getFilteredInstanceFactory(
+        Class<T> type, String classifier, int key, FactoryFilter factoryFilter
+    ) {
+        Range range = getOptionalRange(type, key);
         if (range == null) {
             return null;
         }
 
         if (range.getCount() == 1) {
-            InstanceFactory factory = factories[range.getFrom()];
+            InstanceFactory factory = factories.get(range.getFrom());
             if (factoryFilter.filter(factory)) {
                 return factory;
             }
@@ -93,7 +174,7 @@ import java.util.Map;
 
         InstanceFactory<T> factory = null;
         for (int index = range.getFrom(), afterLast = range.getFrom() + range.getCount(); index < afterLast; index++) {
-            InstanceFactory<T> candidate = factories[index];
+            InstanceFactory<T> candidate = factories.get(index);
             if (factoryFilter.filter(candidate)) {
                 if (factory != null) {
                     throw new IllegalStateException(
@@ -115,73 +196,63 @@ import java.util.Map;
     public <T> @NotNull List<InstanceFactory<T>> getManyInstanceFactories(
         Class<T> type, String classifier, FactoryFilter factoryFilter
     ) {
-        Object indexed = index.get(type);
+        return getManyInstanceFactories(type, classifier, Keys.id(type, classifier), factoryFilter);
+    }
 
-        if (indexed instanceof Range) {
-            Range range = (Range) indexed;
-            if (range.getClassifier().equals(classifier)) {
-                return factoriesFromRange(range, factoryFilter);
-            }
+    @Override
+    public <T> @NotNull List<InstanceFactory<T>> getManyInstanceFactories(
+        Class<T> type, String classifier, int key, FactoryFilter factoryFilter
+    ) {
+        Range range = getOptionalRange(type, key);
+        if (range == null) {
             return Collections.emptyList();
         }
+        return factoriesFromRange(range, factoryFilter);
+    }
 
-        if (indexed instanceof Map) {
-            Map<String, Range> ranges = (Map<String, Range>) indexed;
-            Range range = ranges.get(classifier);
-            if (range != null) {
-                return factoriesFromRange(range, factoryFilter);
-            }
-            return Collections.emptyList();
-        }
+    @Override
+    public boolean hasInstanceFactories(Class<?> type, String classifier) {
+        return getOptionalRange(type, classifier) != null;
+    }
 
-        return Collections.emptyList();
+    @Override
+    public boolean hasInstanceFactories(Class<?> type, String classifier, int key) {
+        return getOptionalRange(type, key) != null;
     }
 
     private Range getOptionalRange(Class<?> type, String classifier) {
-        Object indexed = index.get(type);
+        return getOptionalRange(type, Keys.id(type, classifier));
+    }
 
-        if (indexed == null) {
-            return null;
+    private Range getOptionalRange(Class<?> type, int key) {
+        Object[] pendingRanges = this.pendingRanges;
+        Range[] ranges = this.ranges;
+        Range range = key < ranges.length ? ranges[key] : null;
+        if (range == null && pendingRanges != null && key < pendingRanges.length && pendingRanges[key] != null) {
+            return resolvePendingRange(type, key);
         }
+        return range;
+    }
 
-        if (indexed instanceof Range) {
-            Range range = (Range) indexed;
-            if (classifier.equals(range.getClassifier())) {
-                return (Range) indexed;
-            }
-            return null;
-        }
+    private synchronized Range resolvePendingRange(Class<?> type, int key) {
+        Object[] pendingRanges = this.pendingRanges;
+        if (pendingRanges != null && key < pendingRanges.length && pendingRanges[key] != null) {
+            Object indexed = pendingRanges[key];
+            ranges = putIndexed(ranges.clone(), type, indexed);
 
-        if (indexed instanceof Map) {
-            Map<String, Range> ranges = (Map<String, Range>) indexed;
-            return ranges.get(classifier);
+            boolean pending = false;
+            pendingRanges = pendingRanges.clone();
+            for (int i = 0; i < pendingRanges.length; i++) {
+                if (pendingRanges[i] == indexed) pendingRanges[i] = null;
+                else if (pendingRanges[i] != null) pending = true;
+            }
+            this.pendingRanges = pending ? pendingRanges : null;
         }
-
-        throw new IllegalStateException(
-            String.format("Unsupported index type: %s", indexed.getClass())
-        );
+        Range[] ranges = this.ranges;
+        return key < ranges.length ? ranges[key] : null;
     }
 
     private <T> List<InstanceFactory<T>> factoriesFromRange(Range range, FactoryFilter factoryFilter) {
-        List<InstanceFactory<T>> filteredFactories = null;
-        for (int index = range.getFrom(), afterLast = range.getFrom() + range.getCount(); index < afterLast; index++) {
-            InstanceFactory<T> factory = factories[index];
-            if (factory.getSelector() != null) {
-                if (filteredFactories == null) {
-                    filteredFactories = new ArrayList<>(range.getCount());
-                }
-                if (factoryFilter.filter(factory)) {
-                    filteredFactories.add(factory);
-                }
-            }
-        }
-
-        if (filteredFactories != null) {
-            return filteredFactories;
-        }
-
-        InstanceFactory<T>[] factories = new InstanceFactory[range.getCount()];
-        System.arraycopy(this.factories, range.getFrom(), factories, 0, range.getCount());
-        return new ImmutableArrayList<>(factories);
+        return range.getFactories(factories).get(factoryFilter);
     }
 }
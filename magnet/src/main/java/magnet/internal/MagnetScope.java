@@ -20,18 +20,15 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.ref.WeakReference;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import magnet.Classifier;
 import magnet.Scope;
 import magnet.Scoping;
+import magnet.Selector;
 import magnet.SelectorFilter;
 import magnet.Visitor;
 
@@ -42,46 +39,106 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
     private static final byte CARDINALITY_SINGLE = 1;
     private static final byte CARDINALITY_MANY = 2;
 
+    private static final MagnetScope[] NO_ANCESTORS = new MagnetScope[0];
+    private static final long[] NO_LIMITS = new long[0];
+
     private final @Nullable MagnetScope parent;
+
+    /*
+     * Ancestor scopes from the root down to the parent, indexed by depth. All children of
+     * a scope share the same array. It only references scopes upwards, so that it does
+     * not keep child scopes reachable.
+     */
+    private final @NotNull MagnetScope[] ancestors;
+    private @Nullable MagnetScope[] childAncestors;
     private final @NotNull InstanceManager instanceManager;
+    private final @Nullable InstantiationLocks instantiationLocks;
+    private final @NotNull KeyGenerations keyGenerations;
     private final int depth;
 
     private @Nullable WeakScopeReference childrenScopes;
-    private @Nullable List<InstanceBucket.InjectedInstance> disposables;
+    /* Factories and objects of disposable instances, stored alternately. */
+    private @Nullable List<Object> disposables;
     private @Nullable String[] limits;
+    private @NotNull long[] limitMask = NO_LIMITS;
+    /* Caches are created on first use and read without locking, see ensureResolutionCache(). */
+    private volatile @Nullable ResolutionCache resolutionCache;
+    private volatile @Nullable ResolutionCache missCache;
+    private volatile @Nullable SelectorCache selectorCache;
     private boolean disposed = false;
 
-    final @NotNull Map<String, InstanceBucket> instanceBuckets;
+    /*
+     * In concurrent scopes the table is never modified after it was published. Writers
+     * copy it while holding the scope's monitor and publish the copy, readers never lock.
+     */
+    volatile @NotNull BucketTable instanceBuckets;
 
-    @SuppressWarnings("AnonymousHasLambdaAlternative")
-    private final @NotNull ThreadLocal<InstantiationContext> instantiationContext =
-        new ThreadLocal<InstantiationContext>() {
-            @Override protected InstantiationContext initialValue() {
-                return new InstantiationContext();
-            }
-        };
+    /* Shared by all scopes of the tree, so that subscopes do not add thread-local entries. */
+    private final @NotNull ThreadLocal<InstantiationContext> instantiationContext;
 
     MagnetScope(@Nullable MagnetScope parent, @NotNull InstanceManager instanceManager) {
+        this(parent, instanceManager, parent == null ? null : parent.instantiationLocks);
+    }
+
+    private MagnetScope(
+        @Nullable MagnetScope parent,
+        @NotNull InstanceManager instanceManager,
+        @Nullable InstantiationLocks instantiationLocks
+    ) {
         this.depth = parent == null ? 0 : parent.depth + 1;
         this.parent = parent;
+        this.ancestors = parent == null ? NO_ANCESTORS : parent.ancestorsForChild();
         this.instanceManager = instanceManager;
-        this.instanceBuckets = new HashMap<>(32, 0.75f);
+        this.instantiationLocks = instantiationLocks;
+        this.keyGenerations = parent == null ? new KeyGenerations() : parent.keyGenerations;
+        this.instantiationContext = parent == null
+            ? createInstantiationContext() : parent.instantiationContext;
+        this.instanceBuckets = BucketTable.EMPTY;
+    }
+
+    /** Creates root scope, which can be used for resolving instances from multiple threads. */
+    static @NotNull MagnetScope createConcurrentRootScope(@NotNull InstanceManager instanceManager) {
+        return new MagnetScope(null, instanceManager, new InstantiationLocks());
+    }
+
+    @SuppressWarnings("AnonymousHasLambdaAlternative")
+    private static @NotNull ThreadLocal<InstantiationContext> createInstantiationContext() {
+        return new ThreadLocal<InstantiationContext>() {
+            @Override protected InstantiationContext initialValue() {
+                return new InstantiationContext();
+            }
+        };
     }
 
     @Override
     public <T> @Nullable T getOptional(@NotNull Class<T> type) {
-        checkNotDisposed();
-        InstanceFactory<T> factory = instanceManager
-            .getFilteredInstanceFactory(type, Classifier.NONE, this);
-        return findOrInjectOptional(type, Classifier.NONE, factory, CARDINALITY_OPTIONAL);
+        return getOptional(type, Classifier.NONE);
     }
 
     @Override
     public <T> @Nullable T getOptional(@NotNull Class<T> type, @NotNull String classifier) {
         checkNotDisposed();
+        int key = key(type, classifier);
+        int generation = keyGenerations.get(key);
+
+        ResolutionCache missCache = this.missCache;
+        if (missCache != null) {
+            ResolutionCache.Entry miss = missCache.get(key);
+            if (miss != null && miss.generation == generation) return null;
+        }
+
         InstanceFactory<T> factory = instanceManager
-            .getFilteredInstanceFactory(type, classifier, this);
-        return findOrInjectOptional(type, classifier, factory, CARDINALITY_OPTIONAL);
+            .getFilteredInstanceFactory(type, classifier, key, this);
+        T object = findOrInjectOptional(type, classifier, key, factory, CARDINALITY_OPTIONAL);
+
+        if (object == null && factory == null
+            && !instanceManager.hasInstanceFactories(type, classifier, key)) {
+            if (missCache == null) {
+                missCache = ensureMissCache();
+            }
+            missCache.put(key, generation, null);
+        }
+        return object;
     }
 
     @Override
@@ -92,9 +149,10 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
     @Override
     public <T> @NotNull T getSingle(@NotNull Class<T> type, @NotNull String classifier) {
         checkNotDisposed();
+        int key = key(type, classifier);
         @Nullable InstanceFactory<T> factory = instanceManager
-            .getFilteredInstanceFactory(type, classifier, this);
-        T object = findOrInjectOptional(type, classifier, factory, CARDINALITY_SINGLE);
+            .getFilteredInstanceFactory(type, classifier, key, this);
+        T object = findOrInjectOptional(type, classifier, key, factory, CARDINALITY_SINGLE);
         if (object == null) {
             throw new IllegalStateException(
                 String.format(
@@ -118,6 +176,19 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
         return getManyObjects(type, classifier);
     }
 
+    @Override
+    public <T> @NotNull List<T> getManyLazily(@NotNull Class<T> type, @NotNull String classifier) {
+        checkNotDisposed();
+        if (instantiationContext.get().isInstantiating()) {
+            /* Objects are dependencies of the instance being created, so they are resolved now. */
+            return getManyObjects(type, classifier);
+        }
+        int key = key(type, classifier);
+        List<InstanceFactory<T>> factories = instanceManager.getManyInstanceFactories(type, classifier, key, this);
+        if (factories.size() == 0) return Collections.emptyList();
+        return new LazyObjectList<>(this, type, classifier, key, factories);
+    }
+
     @Override
     public <T> @NotNull Scope bind(@NotNull Class<T> type, @NotNull T object) {
         bind(type, object, Classifier.NONE);
@@ -129,8 +200,37 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
         @NotNull Class<T> type, @NotNull T object, @NotNull String classifier
     ) {
         checkNotDisposed();
-        final String key = key(type, classifier);
-        Object existing = instanceBuckets.put(
+        final int key = key(type, classifier);
+        if (instantiationLocks == null) {
+            bindObject(writableBuckets(), key, type, object, classifier);
+        } else {
+            synchronized (this) {
+                BucketTable buckets = instanceBuckets.copy();
+                bindObject(buckets, key, type, object, classifier);
+                instanceBuckets = buckets;
+            }
+        }
+        keyGenerations.increment(key);
+        return this;
+    }
+
+    private <T> void bindObject(
+        @NotNull BucketTable buckets,
+        int key,
+        @NotNull Class<T> type,
+        @NotNull T object,
+        @NotNull String classifier
+    ) {
+        Object existing = buckets.get(key);
+        if (existing != null) {
+            throw new IllegalStateException(
+                String.format(
+                    "Instance of type %s already registered. Existing instance %s, new instance %s",
+                    Keys.toString(key), existing, object
+                )
+            );
+        }
+        buckets.put(
             key,
             new InstanceBucket<>(
                 /* scope = */ this,
@@ -141,27 +241,41 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
                 /* listener = */  this
             )
         );
-        if (existing != null) {
-            throw new IllegalStateException(
-                String.format(
-                    "Instance of type %s already registered. Existing instance %s, new instance %s",
-                    key, existing, object
-                )
-            );
-        }
-        return this;
     }
 
     @Override
     public @NotNull Scope createSubscope() {
         checkNotDisposed();
 
-        MagnetScope child = new MagnetScope(this, instanceManager);
-        childrenScopes = new WeakScopeReference(child, childrenScopes);
+        MagnetScope child;
+        if (instantiationLocks == null) {
+            child = new MagnetScope(this, instanceManager);
+            childrenScopes = new WeakScopeReference(child, childrenScopes);
+        } else {
+            synchronized (this) {
+                child = new MagnetScope(this, instanceManager);
+                childrenScopes = new WeakScopeReference(child, childrenScopes);
+            }
+        }
 
         return child;
     }
 
+    private @NotNull MagnetScope[] ancestorsForChild() {
+        MagnetScope[] childAncestors = this.childAncestors;
+        if (childAncestors == null) {
+            childAncestors = new MagnetScope[depth + 1];
+            System.arraycopy(ancestors, 0, childAncestors, 0, depth);
+            childAncestors[depth] = this;
+            this.childAncestors = childAncestors;
+        }
+        return childAncestors;
+    }
+
+    private @NotNull MagnetScope scopeAt(int depth) {
+        return depth == this.depth ? this : ancestors[depth];
+    }
+
     @Override
     public @NotNull Scope limit(String... limits) {
         if (this.limits != null) {
@@ -178,6 +292,7 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
         }
         Arrays.sort(limits);
         this.limits = limits;
+        this.limitMask = Limits.mask(limits);
         return this;
     }
 
@@ -198,9 +313,9 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
         }
 
         if (disposables != null) {
-            for (int i = disposables.size(); i-- > 0; ) {
-                InstanceBucket.InjectedInstance single = disposables.get(i);
-                single.factory.dispose(single.object);
+            for (int i = disposables.size() - 2; i >= 0; i -= 2) {
+                InstanceFactory factory = (InstanceFactory) disposables.get(i);
+                factory.dispose(disposables.get(i + 1));
             }
         }
 
@@ -217,6 +332,16 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
     }
 
     private void onChildScopeDisposed(MagnetScope childScope) {
+        if (instantiationLocks == null) {
+            removeChildScope(childScope);
+        } else {
+            synchronized (this) {
+                removeChildScope(childScope);
+            }
+        }
+    }
+
+    private void removeChildScope(MagnetScope childScope) {
         if (childrenScopes == null) return;
         WeakScopeReference prevWeakScope = null;
         WeakScopeReference weakScope = childrenScopes;
@@ -236,15 +361,13 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
     }
 
     @Override
-    public <T> void onInstanceCreated(InstanceBucket.SingleObjectInstance<T> instance) {
-        if (instance instanceof InstanceBucket.InjectedInstance) {
-            InstanceBucket.InjectedInstance injected = (InstanceBucket.InjectedInstance) instance;
-            if (injected.factory.isDisposable()) {
-                if (disposables == null) {
-                    disposables = new ArrayList<>(8);
-                }
-                disposables.add(injected);
+    public <T> void onInstanceCreated(@NotNull InstanceFactory<T> factory, @NotNull T object) {
+        if (InstanceFactory.disposableOf(factory)) {
+            if (disposables == null) {
+                disposables = new ArrayList<>(8);
             }
+            disposables.add(factory);
+            disposables.add(object);
         }
     }
 
@@ -254,43 +377,134 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
 
     @Override
     public boolean filter(@NotNull InstanceFactory factory) {
+        Selector compiledSelector = InstanceFactory.compiledSelectorOf(factory);
+        if (compiledSelector != null) {
+            return evaluateSelector(factory, compiledSelector);
+        }
         String[] selector = factory.getSelector();
         if (selector == null) {
             return true;
         }
-        SelectorFilter selectorFilter = getOptional(SelectorFilter.class, selector[0]);
+        return filterSelector(factory, factory, selector[0], selector, null);
+    }
+
+    private boolean evaluateSelector(@NotNull InstanceFactory factory, @NotNull Selector selector) {
+        Selector[] expressions = selector.expressions;
+        switch (selector.type) {
+            case Selector.AND:
+                for (Selector expression : expressions) {
+                    if (!evaluateSelector(factory, expression)) return false;
+                }
+                return true;
+            case Selector.OR:
+                for (Selector expression : expressions) {
+                    if (evaluateSelector(factory, expression)) return true;
+                }
+                return false;
+            case Selector.NOT:
+                return !evaluateSelector(factory, expressions[0]);
+            default:
+                return filterSelector(factory, selector, selector.filter, null, selector);
+        }
+    }
+
+    /** Filters either string or compiled selector and caches the result under given cache key. */
+    private boolean filterSelector(
+        @NotNull InstanceFactory factory,
+        @NotNull Object cacheKey,
+        @NotNull String filterId,
+        @Nullable String[] selector,
+        @Nullable Selector compiledSelector
+    ) {
+        int key = key(SelectorFilter.class, filterId);
+        int keyGeneration = keyGenerations.get(key);
+
+        SelectorCache selectorCache = this.selectorCache;
+        if (selectorCache != null) {
+            SelectorCache.Entry entry = selectorCache.get(cacheKey);
+            if (entry != null && entry.isValid(keyGeneration)) return entry.result;
+        }
+
+        SelectorFilter selectorFilter = getOptional(SelectorFilter.class, filterId);
         if (selectorFilter == null) {
             throw new IllegalStateException(
                 String.format(
                     "Factory %s requires selector '%s', which implementation is not available in the scope." +
                         " Make sure to add corresponding %s implementation to the classpath.",
-                    factory, Arrays.toString(selector), SelectorFilter.class)
+                    factory,
+                    compiledSelector == null ? Arrays.toString(selector) : compiledSelector,
+                    SelectorFilter.class)
             );
         }
-        return selectorFilter.filter(selector);
+        int filterGeneration = SelectorCache.filterGeneration(selectorFilter, cacheKey);
+        boolean result = compiledSelector == null
+            ? selectorFilter.filter(selector) : selectorFilter.filter(compiledSelector);
+
+        if (selectorCache == null) {
+            selectorCache = ensureSelectorCache();
+        }
+        selectorCache.put(cacheKey, selectorFilter, keyGeneration, filterGeneration, result);
+        return result;
+    }
+
+    private @NotNull SelectorCache ensureSelectorCache() {
+        SelectorCache cache = selectorCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = selectorCache;
+                if (cache == null) {
+                    cache = selectorCache = new SelectorCache();
+                }
+            }
+        }
+        return cache;
     }
 
     private <T> @NotNull List<T> getManyObjects(Class<T> type, String classifier) {
-        List<InstanceFactory<T>> factories = instanceManager.getManyInstanceFactories(type, classifier, this);
+        int key = key(type, classifier);
+        List<InstanceFactory<T>> factories = instanceManager.getManyInstanceFactories(type, classifier, key, this);
         if (factories.size() == 0) return Collections.emptyList();
 
         List<T> objects = new ArrayList<>(factories.size());
         for (InstanceFactory<T> factory : factories) {
-            T object = findOrInjectOptional(type, classifier, factory, CARDINALITY_MANY);
+            T object = findOrInjectOptional(type, classifier, key, factory, CARDINALITY_MANY);
             if (object != null) objects.add(object);
         }
         return objects;
     }
 
-    @SuppressWarnings("unchecked")
+    /** Returns object of given factory for a list created by {@link #getManyLazily}, or null if it provided none. */
+    <T> @Nullable T findManyObject(
+        @NotNull Class<T> type, @NotNull String classifier, int key, @NotNull InstanceFactory<T> factory
+    ) {
+        checkNotDisposed();
+        return findOrInjectOptional(type, classifier, key, factory, CARDINALITY_MANY);
+    }
+
+    /** Returns object of given non-nullable factory for an element of a list created by {@link #getManyLazily}. */
+    <T> @NotNull T getManyObject(
+        @NotNull Class<T> type, @NotNull String classifier, int key, @NotNull InstanceFactory<T> factory
+    ) {
+        T object = findManyObject(type, classifier, key, factory);
+        if (object == null) {
+            throw new IllegalStateException(
+                String.format(
+                    "Factory %s provided no instance of type '%s' (classifier: '%s').",
+                    factory, type.getName(), classifier
+                )
+            );
+        }
+        return object;
+    }
+
     private <T> @Nullable T findOrInjectOptional(
         @NotNull Class<T> objectType,
         @NotNull String classifier,
+        int key,
         @Nullable InstanceFactory<T> factory,
         byte cardinality
     ) {
         @NotNull InstantiationContext instantiationContext = this.instantiationContext.get();
-        @NotNull String key = key(objectType, classifier);
 
         InstanceBucket<T> deepInstanceBucket = findDeepInstanceBucket(key, factory);
         if (factory == null) {
@@ -307,40 +521,72 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
             return deepInstanceBucket.getSingleInstance();
         }
 
-        boolean keepInScope = factory.getScoping() != Scoping.UNSCOPED;
-        if (keepInScope) {
-            if (deepInstanceBucket != null) {
-                boolean isSingleOrOptional = cardinality != CARDINALITY_MANY;
-
-                if (isSingleOrOptional) {
-                    instantiationContext.onDependencyFound(deepInstanceBucket.getScope().depth, key);
-                    return deepInstanceBucket.getSingleInstance();
-                }
+        boolean keepInScope = InstanceFactory.scopingOf(factory) != Scoping.UNSCOPED;
+        if (keepInScope && deepInstanceBucket != null) {
+            T object = getScopedObject(deepInstanceBucket, factory, cardinality);
+            if (object != null) {
+                instantiationContext.onDependencyFound(deepInstanceBucket.getScope().depth, key);
+                return object;
+            }
+        }
 
-                T object = deepInstanceBucket.getOptional((Class<InstanceFactory<T>>) factory.getClass());
-                if (object != null) {
-                    instantiationContext.onDependencyFound(deepInstanceBucket.getScope().depth, key);
-                    return object;
+        if (keepInScope && instantiationLocks != null) {
+            InstantiationLocks.Lock lock = instantiationLocks.acquire(key);
+            try {
+                if (lock != null) {
+                    deepInstanceBucket = findDeepInstanceBucket(key, factory);
+                    if (deepInstanceBucket != null) {
+                        T object = getScopedObject(deepInstanceBucket, factory, cardinality);
+                        if (object != null) {
+                            instantiationContext.onDependencyFound(deepInstanceBucket.getScope().depth, key);
+                            return object;
+                        }
+                    }
                 }
+                return injectObject(
+                    objectType, classifier, factory, key, deepInstanceBucket, instantiationContext
+                );
+            } finally {
+                if (lock != null) instantiationLocks.release(key, lock);
             }
         }
 
-        instantiationContext.onBeginInstantiation(key);
+        return injectObject(
+            objectType, classifier, factory, key, deepInstanceBucket, instantiationContext
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T injectObject(
+        @NotNull Class<T> objectType,
+        @NotNull String classifier,
+        @NotNull InstanceFactory<T> factory,
+        int key,
+        @Nullable InstanceBucket<T> deepInstanceBucket,
+        @NotNull InstantiationContext instantiationContext
+    ) {
+        Scoping objectScoping = InstanceFactory.scopingOf(factory);
+        boolean keepInScope = objectScoping != Scoping.UNSCOPED;
 
-        T object = factory.create(this);
+        instantiationContext.onBeginInstantiation(key, depth);
 
-        Instantiation instantiation = instantiationContext.onEndInstantiation();
-        int objectDepth = instantiation.dependencyDepth;
-        Scoping objectScoping = factory.getScoping();
+        T object;
+        int objectDepth;
+        try {
+            object = factory.create(this);
+        } finally {
+            objectDepth = instantiationContext.onEndInstantiation();
+        }
 
-        @NotNull String objectLimit = factory.getLimit();
+        @NotNull String objectLimit = InstanceFactory.limitOf(factory);
         if (objectLimit.length() > 0) {
             if (objectScoping == Scoping.TOPMOST) {
-                objectDepth = findTopMostLimitedObjectDepth(objectLimit, objectDepth);
+                objectDepth = findTopMostLimitedObjectDepth(Limits.id(objectLimit), objectDepth);
 
             } else if (objectScoping == Scoping.DIRECT) {
                 objectDepth = findDirectLimitedObjectDepth(
-                    objectLimit, objectDepth, object, objectType, classifier, instantiation
+                    objectLimit, objectDepth, object, objectType, classifier,
+                    instantiationContext.getEndedDependencyKey()
                 );
             }
 
@@ -358,7 +604,12 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
                 && deepInstanceBucket.getScope().depth == objectDepth;
 
             if (canRegisterAtDeepInstanceBucket) {
-                deepInstanceBucket.registerObject(factory, objectType, object, classifier);
+                if (instantiationLocks == null) {
+                    deepInstanceBucket.registerObject(factory, objectType, object, classifier);
+                } else {
+                    deepInstanceBucket.getScope()
+                        .registerInstance(key, factory, objectType, object, classifier);
+                }
 
             } else {
                 registerInstanceInScope(
@@ -371,19 +622,17 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
                 );
             }
 
-            Class[] siblingFactoryTypes = factory.getSiblingTypes();
-            if (siblingFactoryTypes != null) {
-                for (int i = 0, size = siblingFactoryTypes.length; i < size; i += 2) {
-                    Class siblingObjectType = siblingFactoryTypes[i];
-                    String siblingKey = key(siblingObjectType, classifier);
-                    InstanceFactory siblingFactory = instanceManager.getInstanceFactory(
-                        siblingObjectType, classifier, siblingFactoryTypes[i + 1]
-                    );
+            Siblings siblings = Siblings.of(factory, classifier, instanceManager);
+            if (siblings != null) {
+                int[] siblingKeys = siblings.keys;
+                Class[] siblingTypes = siblings.types;
+                InstanceFactory[] siblingFactories = siblings.factories;
+                for (int i = 0, size = siblingKeys.length; i < size; i++) {
                     registerInstanceInScope(
-                        siblingKey,
+                        siblingKeys[i],
                         objectDepth,
-                        siblingFactory,
-                        siblingObjectType,
+                        siblingFactories[i],
+                        siblingTypes[i],
                         object,
                         classifier
                     );
@@ -394,31 +643,28 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
         return object;
     }
 
-    private int findTopMostLimitedObjectDepth(String objectLimit, int objectDepth) {
-        @Nullable MagnetScope scope = this;
-        while (scope != null) {
-            if (objectDepth > scope.depth) {
+    private int findTopMostLimitedObjectDepth(int limitId, int objectDepth) {
+        for (int depth = this.depth; depth >= 0; depth--) {
+            if (objectDepth > depth) {
                 return objectDepth;
-            } else if (scope.hasLimit(objectLimit)) {
-                return scope.depth;
+            } else if (scopeAt(depth).hasLimit(limitId)) {
+                return depth;
             }
-            scope = scope.parent;
         }
         return -1;
     }
 
     private <T> int findDirectLimitedObjectDepth(
         String objectLimit, int objectDepth, T object, Class<T> objectType, String classifier,
-        Instantiation instantiation
+        int dependencyKey
     ) {
-        @Nullable MagnetScope scope = this;
+        int limitId = Limits.id(objectLimit);
         int limitingScopeDepth = -1;
-        while (scope != null) {
-            if (scope.hasLimit(objectLimit)) {
-                limitingScopeDepth = scope.depth;
+        for (int depth = this.depth; depth >= 0; depth--) {
+            if (scopeAt(depth).hasLimit(limitId)) {
+                limitingScopeDepth = depth;
                 break;
             }
-            scope = scope.parent;
         }
 
         if (limitingScopeDepth > -1 && limitingScopeDepth < objectDepth) {
@@ -430,8 +676,8 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
                     "Cannot register instance in limiting scope [depth: %s] because its" +
                         " dependency '%s' is located in non-reachable child scope [depth: %s].\n%s",
                     limitingScopeDepth,
-                    instantiation.dependencyKey,
-                    instantiation.dependencyDepth,
+                    Keys.toString(dependencyKey),
+                    objectDepth,
                     logDetails
                 )
             );
@@ -440,61 +686,153 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
         return limitingScopeDepth;
     }
 
-    private boolean hasLimit(@NotNull String limit) {
-        if (limit.length() == 0 || limits == null) {
-            return false;
-        }
-        return Arrays.binarySearch(limits, limit) > -1;
+    private boolean hasLimit(int limitId) {
+        return Limits.contains(limitMask, limitId);
     }
 
     private <T> void registerInstanceInScope(
-        @NotNull String key,
+        int key,
         int depth,
         @Nullable InstanceFactory<T> factory,
         @NotNull Class<T> objectType,
         @NotNull T object,
         @NotNull String classifier
     ) {
-        if (this.depth == depth) {
-            @SuppressWarnings("unchecked") final InstanceBucket<T> bucket = instanceBuckets.get(key);
+        if (depth < 0 || depth > this.depth) {
+            throw new IllegalStateException(
+                String.format(
+                    "Cannot register instance %s, factory: %s, depth: %s",
+                    object, factory, depth
+                )
+            );
+        }
+        scopeAt(depth).registerInstance(key, factory, objectType, object, classifier);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> void registerInstance(
+        int key,
+        @Nullable InstanceFactory<T> factory,
+        @NotNull Class<T> objectType,
+        @NotNull T object,
+        @NotNull String classifier
+    ) {
+        if (instantiationLocks == null) {
+            final InstanceBucket<T> bucket = instanceBuckets.get(key);
             if (bucket == null) {
-                instanceBuckets.put(
+                writableBuckets().put(
                     key,
                     new InstanceBucket<>(this, factory, objectType, object, classifier, this)
                 );
+                keyGenerations.increment(key);
             } else {
                 bucket.registerObject(factory, objectType, object, classifier);
             }
             return;
         }
-        if (parent == null) {
-            throw new IllegalStateException(
-                String.format(
-                    "Cannot register instance %s, factory: %s, depth: %s",
-                    object, factory, depth
-                )
-            );
+
+        synchronized (this) {
+            final InstanceBucket<T> bucket = instanceBuckets.get(key);
+            BucketTable buckets = instanceBuckets.copy();
+            if (bucket == null) {
+                buckets.put(
+                    key,
+                    new InstanceBucket<>(this, factory, objectType, object, classifier, this)
+                );
+            } else {
+                buckets.put(key, bucket.copyWithObject(factory, objectType, object, classifier));
+            }
+            instanceBuckets = buckets;
+            keyGenerations.increment(key);
         }
-        parent.registerInstanceInScope(key, depth, factory, objectType, object, classifier);
+    }
+
+    /* Bucket tables are allocated on first write, so that short-living scopes stay small. */
+    private @NotNull BucketTable writableBuckets() {
+        BucketTable buckets = instanceBuckets;
+        if (buckets == BucketTable.EMPTY) {
+            buckets = instanceBuckets = new BucketTable(0);
+        }
+        return buckets;
     }
 
     @Nullable
     @SuppressWarnings("unchecked")
     private <T> InstanceBucket<T> findDeepInstanceBucket(
-        @NotNull String key, @Nullable InstanceFactory<T> factory
+        int key, @Nullable InstanceFactory<T> factory
     ) {
-        @Nullable InstanceBucket<T> bucket = (InstanceBucket<T>) instanceBuckets.get(key);
-        if (bucket != null && bucket.hasInstanceWithFactory(factory)) return bucket;
-        if (parent == null) return null;
-        return parent.findDeepInstanceBucket(key, factory);
+        @Nullable InstanceBucket<T> bucket = findNearestInstanceBucket(key);
+        while (bucket != null) {
+            if (bucket.hasInstanceWithFactory(factory)) return bucket;
+            MagnetScope parent = bucket.getScope().parent;
+            if (parent == null) return null;
+            bucket = parent.findNearestInstanceBucket(key);
+        }
+        return null;
+    }
+
+    /* Double-checked, so that racing threads of a concurrent scope share the same cache. */
+    private @NotNull ResolutionCache ensureResolutionCache() {
+        ResolutionCache cache = resolutionCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = resolutionCache;
+                if (cache == null) {
+                    cache = resolutionCache = new ResolutionCache();
+                }
+            }
+        }
+        return cache;
+    }
+
+    private @NotNull ResolutionCache ensureMissCache() {
+        ResolutionCache cache = missCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = missCache;
+                if (cache == null) {
+                    cache = missCache = new ResolutionCache();
+                }
+            }
+        }
+        return cache;
     }
 
-    @NotNull
-    static String key(Class<?> type, String classifier) {
-        if (classifier == null || classifier.length() == 0) {
-            return type.getName();
+    /** Returns the bucket for given key from this scope or from the nearest ancestor having it. */
+    @Nullable
+    private InstanceBucket findNearestInstanceBucket(int key) {
+        InstanceBucket bucket = instanceBuckets.get(key);
+        if (bucket != null || parent == null) return bucket;
+
+        // generation must be read before the walk, so that a concurrent registration stales the entry
+        int generation = keyGenerations.get(key);
+        ResolutionCache cache = resolutionCache;
+        if (cache != null) {
+            ResolutionCache.Entry entry = cache.get(key);
+            if (entry != null && entry.generation == generation) return entry.bucket;
+        } else {
+            cache = ensureResolutionCache();
         }
-        return classifier + "@" + type.getName();
+
+        for (int depth = this.depth - 1; depth >= 0; depth--) {
+            bucket = ancestors[depth].instanceBuckets.get(key);
+            if (bucket != null) break;
+        }
+        cache.put(key, generation, bucket);
+        return bucket;
+    }
+
+    private static <T> @Nullable T getScopedObject(
+        @NotNull InstanceBucket<T> bucket, @NotNull InstanceFactory<T> factory, byte cardinality
+    ) {
+        if (cardinality != CARDINALITY_MANY) {
+            return bucket.getSingleInstance();
+        }
+        return bucket.getOptional(InstanceFactory.getFactoryKey(factory));
+    }
+
+    static int key(Class<?> type, String classifier) {
+        return Keys.id(type, classifier == null ? Classifier.NONE : classifier);
     }
 
     @Override
@@ -507,9 +845,9 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
 
         boolean visitScopes = true;
         if (visitor.onEnterScope(this, parent)) {
-            Collection<InstanceBucket> buckets = this.instanceBuckets.values();
-            for (InstanceBucket bucket : buckets) {
-                if (!bucket.accept(visitor)) {
+            BucketTable buckets = this.instanceBuckets;
+            for (int slot = 0, size = buckets.size(); slot < size; slot++) {
+                if (!buckets.bucketAt(slot).accept(visitor)) {
                     visitScopes = false;
                     break;
                 }
@@ -580,71 +918,6 @@ final class MagnetScope implements Scope, Visitor.Scope, FactoryFilter, Instance
         );
     }
 
-    private final static class InstantiationContext {
-        private final ArrayDeque<Instantiation> instantiations = new ArrayDeque<>();
-        private Instantiation currentInstantiation;
-
-        void onBeginInstantiation(String key) {
-            if (currentInstantiation != null) {
-                instantiations.addFirst(currentInstantiation);
-            }
-            currentInstantiation = new Instantiation(key);
-            if (instantiations.contains(currentInstantiation)) {
-                throw createCircularDependencyException();
-            }
-        }
-
-        @NotNull Instantiation onEndInstantiation() {
-            Instantiation instantiation = currentInstantiation;
-            currentInstantiation = instantiations.isEmpty() ? null : instantiations.pollFirst();
-            return instantiation;
-        }
-
-        void onDependencyFound(int dependencyDepth, @NotNull String dependencyKey) {
-            if (currentInstantiation == null) return;
-            if (dependencyDepth > currentInstantiation.dependencyDepth) {
-                currentInstantiation.dependencyDepth = dependencyDepth;
-                currentInstantiation.dependencyKey = dependencyKey;
-            }
-        }
-
-        private IllegalStateException createCircularDependencyException() {
-
-            Instantiation[] objects = instantiations.toArray(new Instantiation[0]);
-            StringBuilder builder = new StringBuilder()
-                .append("Dependency injection failed because of unresolved circular dependency: ");
-            for (int i = objects.length; i-- > 0; ) {
-                builder.append(objects[i].key).append(" -> ");
-            }
-            builder.append(currentInstantiation.key);
-
-            return new IllegalStateException(builder.toString());
-        }
-    }
-
-    private final static class Instantiation {
-        final String key;
-        int dependencyDepth;
-        @Nullable String dependencyKey;
-
-        Instantiation(String key) {
-            this.key = key;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            Instantiation that = (Instantiation) o;
-            return key.equals(that.key);
-        }
-
-        @Override
-        public int hashCode() {
-            return key.hashCode();
-        }
-    }
-
     private final static class WeakScopeReference extends WeakReference<MagnetScope> {
         private @Nullable WeakScopeReference next;
         WeakScopeReference(MagnetScope referent, @Nullable WeakScopeReference next) {
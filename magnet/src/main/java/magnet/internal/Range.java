@@ -22,11 +22,20 @@ final class Range {
     private final int from;
     private final int count;
     private final String classifier;
+    private final int key;
+
+    /* Created on first use, racing threads may create equal instances. */
+    private RangeFactories factories;
 
     public Range(int from, int count, String classifier) {
+        this(from, count, classifier, -1);
+    }
+
+    public Range(int from, int count, String classifier, int key) {
         this.from = from;
         this.count = count;
         this.classifier = classifier;
+        this.key = key;
     }
 
     public int getFrom() {
@@ -40,4 +49,18 @@ final class Range {
     public String getClassifier() {
         return classifier;
     }
+
+    /** Returns key id assigned by the processor or -1, if no id was assigned. */
+    public int getKey() {
+        return key;
+    }
+
+    RangeFactories getFactories(FactorySlots factories) {
+        RangeFactories rangeFactories = this.factories;
+        if (rangeFactories == null) {
+            rangeFactories = new RangeFactories(factories.fill(from, count), from, count);
+            this.factories = rangeFactories;
+        }
+        return rangeFactories;
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Factories of a single index range, computed once per range. The unfiltered list is a
+ * view over the factories array. If some factories of the range have selectors, only
+ * those factories accepted by the filter are returned. The filtered list is cached for
+ * the last combination of accepted factories, so that scopes accepting the same
+ * factories share the list.
+ *
+ * Subject to change. For internal use only.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class RangeFactories {
+
+    private static final int MAX_CACHED_SELECTORS = Long.SIZE;
+
+    private final @NotNull InstanceFactory[] factories;
+    private final @NotNull List all;
+    private final @NotNull int[] selectorIndexes;
+    private volatile Filtered filtered;
+
+    RangeFactories(@NotNull InstanceFactory[] factories, int from, int count) {
+        this.factories = factories;
+        this.all = new ImmutableArrayList<>(factories, from, count);
+
+        int selectorCount = 0;
+        int[] selectorIndexes = new int[count];
+        for (int index = from, afterLast = from + count; index < afterLast; index++) {
+            InstanceFactory factory = factories[index];
+            if (InstanceFactory.compiledSelectorOf(factory) != null || factory.getSelector() != null) {
+                selectorIndexes[selectorCount++] = index;
+            }
+        }
+        this.selectorIndexes = selectorCount == count
+            ? selectorIndexes : Arrays.copyOf(selectorIndexes, selectorCount);
+    }
+
+    @NotNull <T> List<InstanceFactory<T>> get(@NotNull FactoryFilter factoryFilter) {
+        int[] selectorIndexes = this.selectorIndexes;
+        if (selectorIndexes.length == 0) {
+            return all;
+        }
+        if (selectorIndexes.length > MAX_CACHED_SELECTORS) {
+            return filter(factoryFilter);
+        }
+
+        long accepted = 0;
+        for (int i = 0; i < selectorIndexes.length; i++) {
+            if (factoryFilter.filter(factories[selectorIndexes[i]])) {
+                accepted |= 1L << i;
+            }
+        }
+
+        Filtered filtered = this.filtered;
+        if (filtered != null && filtered.accepted == accepted) {
+            return filtered.factories;
+        }
+
+        int size = Long.bitCount(accepted);
+        List list;
+        if (size == 0) {
+            list = Collections.emptyList();
+        } else {
+            InstanceFactory[] acceptedFactories = new InstanceFactory[size];
+            for (int i = 0, position = 0; i < selectorIndexes.length; i++) {
+                if ((accepted & (1L << i)) != 0) {
+                    acceptedFactories[position++] = factories[selectorIndexes[i]];
+                }
+            }
+            list = new ImmutableArrayList<>(acceptedFactories);
+        }
+        this.filtered = new Filtered(accepted, list);
+        return list;
+    }
+
+    private @NotNull List filter(@NotNull FactoryFilter factoryFilter) {
+        InstanceFactory[] acceptedFactories = new InstanceFactory[selectorIndexes.length];
+        int size = 0;
+        for (int index : selectorIndexes) {
+            InstanceFactory factory = factories[index];
+            if (factoryFilter.filter(factory)) {
+                acceptedFactories[size++] = factory;
+            }
+        }
+        return new ImmutableArrayList<>(acceptedFactories, 0, size);
+    }
+
+    private static final class Filtered {
+        final long accepted;
+        final @NotNull List factories;
+
+        Filtered(long accepted, @NotNull List factories) {
+            this.accepted = accepted;
+            this.factories = factories;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import org.jetbrains.annotations.Nullable;
+
+/*
+ * Direct-mapped cache of buckets found in ancestor scopes. Scopes also use it for
+ * remembering optional lookups which found nothing. Each entry is immutable and
+ * stamped with the generation of its key, which makes it stale as soon as a new bucket
+ * for the key is registered in the scope tree. Concurrent readers either observe a
+ * complete entry or miss.
+ *
+ * Subject to change. For internal use only.
+ */
+@SuppressWarnings("rawtypes")
+final class ResolutionCache {
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int MAX_CAPACITY = 1024;
+
+    private volatile Entry[] entries = new Entry[INITIAL_CAPACITY];
+    private int count;
+
+    @Nullable Entry get(int key) {
+        Entry[] entries = this.entries;
+        Entry entry = entries[BucketTable.hash(key) & (entries.length - 1)];
+        return entry != null && entry.key == key ? entry : null;
+    }
+
+    void put(int key, int generation, @Nullable InstanceBucket bucket) {
+        Entry[] entries = this.entries;
+        int position = BucketTable.hash(key) & (entries.length - 1);
+        if (entries[position] == null && ++count > entries.length >> 1
+            && entries.length < MAX_CAPACITY) {
+            entries = grow(entries);
+            position = BucketTable.hash(key) & (entries.length - 1);
+        }
+        entries[position] = new Entry(key, generation, bucket);
+    }
+
+    private Entry[] grow(Entry[] entries) {
+        Entry[] newEntries = new Entry[entries.length << 1];
+        int mask = newEntries.length - 1;
+        int count = 1;
+        for (Entry entry : entries) {
+            if (entry == null) continue;
+            int position = BucketTable.hash(entry.key) & mask;
+            if (newEntries[position] == null) count++;
+            newEntries[position] = entry;
+        }
+        this.count = count;
+        this.entries = newEntries;
+        return newEntries;
+    }
+
+    static final class Entry {
+        final int key;
+        final int generation;
+        final @Nullable InstanceBucket bucket;
+
+        Entry(int key, int generation, @Nullable InstanceBucket bucket) {
+            this.key = key;
+            this.generation = generation;
+            this.bucket = bucket;
+        }
+    }
+}
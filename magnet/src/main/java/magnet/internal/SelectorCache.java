@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Selector;
+import magnet.SelectorFilter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/*
+ * Open-addressing cache of selector results keyed by compiled selector clause, or by
+ * factory for factories providing selectors as string arrays. The cache is kept at most
+ * half full. When it cannot grow anymore, new entries replace the entries at their
+ * home positions. Each entry is immutable and remembers the selector filter it was
+ * computed with, the generation of the filter's key and the generation of the filter
+ * itself. The entry is stale as soon as any of them changes. Concurrent readers either
+ * observe a complete entry or miss.
+ *
+ * Subject to change. For internal use only.
+ */
+final class SelectorCache {
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int MAX_CAPACITY = 256;
+
+    private volatile Entry[] entries = new Entry[INITIAL_CAPACITY];
+    private int count;
+
+    @Nullable Entry get(@NotNull Object selector) {
+        Entry[] entries = this.entries;
+        Entry entry = entries[find(entries, selector)];
+        return entry != null && entry.selector == selector ? entry : null;
+    }
+
+    void put(
+        @NotNull Object selector,
+        @NotNull SelectorFilter selectorFilter,
+        int keyGeneration,
+        int filterGeneration,
+        boolean result
+    ) {
+        Entry entry = new Entry(selector, selectorFilter, keyGeneration, filterGeneration, result);
+        Entry[] entries = this.entries;
+        int position = find(entries, selector);
+        if (entries[position] == null) {
+            if (count + 1 > entries.length >> 1) {
+                if (entries.length == MAX_CAPACITY) {
+                    entries[hash(selector) & (entries.length - 1)] = entry;
+                    return;
+                }
+                entries = grow(entries);
+                position = find(entries, selector);
+            }
+            count++;
+        }
+        entries[position] = entry;
+    }
+
+    /**
+     * Returns position of the entry for given selector or of the empty slot to put it into.
+     * Racing writers may fill the table up, then the home position is returned.
+     */
+    private static int find(@NotNull Entry[] entries, @NotNull Object selector) {
+        int mask = entries.length - 1;
+        int home = hash(selector) & mask;
+        for (int probe = 0, position = home; probe < entries.length; probe++, position = (position + 1) & mask) {
+            Entry entry = entries[position];
+            if (entry == null || entry.selector == selector) return position;
+        }
+        return home;
+    }
+
+    private Entry[] grow(Entry[] entries) {
+        Entry[] newEntries = new Entry[entries.length << 1];
+        for (Entry entry : entries) {
+            if (entry == null) continue;
+            newEntries[find(newEntries, entry.selector)] = entry;
+        }
+        this.entries = newEntries;
+        return newEntries;
+    }
+
+    private static int hash(@NotNull Object selector) {
+        return BucketTable.hash(System.identityHashCode(selector));
+    }
+
+    static final class Entry {
+        final @NotNull Object selector;
+        final @NotNull SelectorFilter selectorFilter;
+        final int keyGeneration;
+        final int filterGeneration;
+        final boolean result;
+
+        Entry(
+            @NotNull Object selector,
+            @NotNull SelectorFilter selectorFilter,
+            int keyGeneration,
+            int filterGeneration,
+            boolean result
+        ) {
+            this.selector = selector;
+            this.selectorFilter = selectorFilter;
+            this.keyGeneration = keyGeneration;
+            this.filterGeneration = filterGeneration;
+            this.result = result;
+        }
+
+        boolean isValid(int keyGeneration) {
+            return this.keyGeneration == keyGeneration
+                && filterGeneration == filterGeneration(selectorFilter, selector);
+        }
+    }
+
+    static int filterGeneration(@NotNull SelectorFilter selectorFilter, @NotNull Object selector) {
+        return selector instanceof Selector
+            ? selectorFilter.getGeneration((Selector) selector)
+            : selectorFilter.getGeneration();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/*
+ * Sibling types of a factory resolved to their keys and factories. Siblings are resolved
+ * once per factory on the first registration of its instance and cached in the factory.
+ *
+ * Subject to change. For internal use only.
+ */
+@SuppressWarnings("rawtypes")
+final class Siblings {
+
+    final @NotNull String classifier;
+    final @NotNull int[] keys;
+    final @NotNull Class[] types;
+    final @NotNull InstanceFactory[] factories;
+
+    private Siblings(
+        @NotNull String classifier,
+        @NotNull int[] keys,
+        @NotNull Class[] types,
+        @NotNull InstanceFactory[] factories
+    ) {
+        this.classifier = classifier;
+        this.keys = keys;
+        this.types = types;
+        this.factories = factories;
+    }
+
+    /** Returns siblings of given factory or null, if the factory has no sibling types. */
+    @SuppressWarnings("unchecked")
+    static @Nullable Siblings of(
+        @NotNull InstanceFactory factory,
+        @NotNull String classifier,
+        @NotNull InstanceManager instanceManager
+    ) {
+        Siblings siblings = factory.siblings;
+        if (siblings != null && siblings.classifier.equals(classifier)) {
+            return siblings;
+        }
+
+        Class[] siblingFactoryTypes = InstanceFactory.siblingTypesOf(factory);
+        if (siblingFactoryTypes == null) {
+            return null;
+        }
+
+        int count = siblingFactoryTypes.length / 2;
+        int[] keys = new int[count];
+        Class[] types = new Class[count];
+        InstanceFactory[] factories = new InstanceFactory[count];
+        for (int i = 0; i < count; i++) {
+            Class siblingType = siblingFactoryTypes[i * 2];
+            keys[i] = MagnetScope.key(siblingType, classifier);
+            types[i] = siblingType;
+            factories[i] = instanceManager.getInstanceFactory(
+                siblingType, classifier, siblingFactoryTypes[i * 2 + 1]
+            );
+        }
+
+        siblings = new Siblings(classifier, keys, types, factories);
+        factory.siblings = siblings;
+        return siblings;
+    }
+}
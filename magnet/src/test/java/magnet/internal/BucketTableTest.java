@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Classifier;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class BucketTableTest {
+
+    private MagnetScope scope;
+    private BucketTable table;
+
+    @Before
+    public void before() {
+        scope = new MagnetScope(null, new MagnetInstanceManager());
+        table = new BucketTable(0);
+    }
+
+    @Test
+    public void emptyTable_ReturnsNull() {
+        assertThat(table.get(0)).isNull();
+        assertThat(table.get(42)).isNull();
+        assertThat(table.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void put_ReturnsSameBucket() {
+        // given
+        InstanceBucket<String> bucket = createBucket("one");
+
+        // when
+        table.put(7, bucket);
+
+        // then
+        assertThat(table.get(7)).isSameInstanceAs(bucket);
+        assertThat(table.get(8)).isNull();
+        assertThat(table.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void put_SameKey_ReplacesBucket() {
+        // given
+        InstanceBucket<String> bucket1 = createBucket("one");
+        InstanceBucket<String> bucket2 = createBucket("two");
+
+        // when
+        table.put(7, bucket1);
+        table.put(7, bucket2);
+
+        // then
+        assertThat(table.get(7)).isSameInstanceAs(bucket2);
+        assertThat(table.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void put_ManyKeys_KeepsRegistrationOrder() {
+        // given
+        InstanceBucket[] buckets = new InstanceBucket[100];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = createBucket(String.valueOf(i));
+        }
+
+        // when
+        for (int i = 0; i < buckets.length; i++) {
+            table.put(1000 - i * 7, buckets[i]);
+        }
+
+        // then
+        assertThat(table.size()).isEqualTo(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            assertThat(table.get(1000 - i * 7)).isSameInstanceAs(buckets[i]);
+            assertThat(table.bucketAt(i)).isSameInstanceAs(buckets[i]);
+        }
+        assertThat(table.get(1001)).isNull();
+    }
+
+    @Test
+    public void copy_DoesNotAffectOriginal() {
+        // given
+        InstanceBucket<String> bucket1 = createBucket("one");
+        InstanceBucket<String> bucket2 = createBucket("two");
+        table.put(1, bucket1);
+
+        // when
+        BucketTable copy = table.copy();
+        copy.put(1, bucket2);
+        copy.put(2, bucket2);
+
+        // then
+        assertThat(table.get(1)).isSameInstanceAs(bucket1);
+        assertThat(table.get(2)).isNull();
+        assertThat(table.size()).isEqualTo(1);
+        assertThat(copy.get(1)).isSameInstanceAs(bucket2);
+        assertThat(copy.get(2)).isSameInstanceAs(bucket2);
+        assertThat(copy.size()).isEqualTo(2);
+    }
+
+    private InstanceBucket<String> createBucket(String value) {
+        return new InstanceBucket<>(scope, null, String.class, value, Classifier.NONE, scope);
+    }
+}
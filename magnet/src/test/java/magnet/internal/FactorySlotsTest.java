@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Classifier;
+import magnet.Scope;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class FactorySlotsTest {
+
+    @Test
+    public void lazySlot_IsCreatedOnFirstUse() {
+        // given
+        CountingSlots slots = new CountingSlots(3);
+
+        // when
+        InstanceFactory factory1 = slots.get(1);
+        InstanceFactory factory2 = slots.get(1);
+
+        // then
+        assertThat(factory2).isSameInstanceAs(factory1);
+        assertThat(slots.created).isEqualTo(1);
+    }
+
+    @Test
+    public void fill_CreatesOnlyGivenRange() {
+        // given
+        CountingSlots slots = new CountingSlots(4);
+
+        // when
+        InstanceFactory[] factories = slots.fill(1, 2);
+
+        // then
+        assertThat(factories[0]).isNull();
+        assertThat(factories[1]).isNotNull();
+        assertThat(factories[2]).isNotNull();
+        assertThat(factories[3]).isNull();
+        assertThat(slots.created).isEqualTo(2);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unknownSlot_Fails() {
+        // given
+        FactorySlots slots = new FactorySlots(1) {
+            @Override InstanceFactory create(int slot) { return null; }
+        };
+
+        // when
+        slots.get(0);
+    }
+
+    @Test
+    public void instanceManager_CreatesOnlyRequestedFactories() {
+        // given
+        CountingSlots slots = new CountingSlots(2);
+        Map<Class, Object> index = new HashMap<>();
+        index.put(Type1.class, new Range(0, 1, Classifier.NONE));
+        index.put(Type2.class, new Range(1, 1, Classifier.NONE));
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        instanceManager.register(slots, index);
+
+        // when
+        InstanceFactory<Type2> factory = instanceManager.getInstanceFactory(Type2.class, Classifier.NONE, null);
+
+        // then
+        assertThat(factory).isNotNull();
+        assertThat(slots.created).isEqualTo(1);
+    }
+
+    @Test
+    public void instanceManager_ResolvesNamedRangesOnFirstLookup() {
+        // given
+        CountingSlots slots = new CountingSlots(3);
+        Map<String, Range> ranges = new HashMap<>();
+        ranges.put("one", new Range(1, 1, "one"));
+        ranges.put("two", new Range(2, 1, "two"));
+        Map<String, Object> namedIndex = new HashMap<>();
+        namedIndex.put(Type3.class.getName(), new Range(0, 1, Classifier.NONE));
+        namedIndex.put(Type4.class.getName(), ranges);
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        instanceManager.register(slots, new HashMap<>(), namedIndex);
+
+        // when
+        InstanceFactory<Type4> factory = instanceManager.getFilteredInstanceFactory(
+            Type4.class, "two", Keys.id(Type4.class, "two"), candidate -> true
+        );
+
+        // then
+        assertThat(factory).isSameInstanceAs(slots.get(2));
+        assertThat(instanceManager.hasInstanceFactories(Type4.class, "one")).isTrue();
+        assertThat(instanceManager.hasInstanceFactories(Type4.class, Classifier.NONE)).isFalse();
+        assertThat(instanceManager.hasInstanceFactories(Type3.class, Classifier.NONE)).isTrue();
+        assertThat(slots.created).isEqualTo(1);
+    }
+
+    @Test
+    public void instanceManager_MissesUnrelatedTypesWithoutResolvingNamedRanges() {
+        // given
+        CountingSlots slots = new CountingSlots(1);
+        Map<String, Object> namedIndex = new HashMap<>();
+        namedIndex.put(Type2.class.getName(), new Range(0, 1, Classifier.NONE));
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        instanceManager.register(slots, new HashMap<>(), namedIndex);
+
+        // when
+        boolean unrelated = instanceManager.hasInstanceFactories(Type1.class, Classifier.NONE);
+
+        // then
+        assertThat(unrelated).isFalse();
+        assertThat(instanceManager.hasInstanceFactories(Type2.class, Classifier.NONE)).isTrue();
+        assertThat(slots.created).isEqualTo(0);
+    }
+
+    interface Type1 {}
+
+    interface Type2 {}
+
+    interface Type3 {}
+
+    interface Type4 {}
+
+    private static class CountingSlots extends FactorySlots {
+        int created;
+
+        CountingSlots(int size) { super(size); }
+
+        @Override InstanceFactory create(int slot) {
+            created++;
+            return new Factory();
+        }
+    }
+
+    private static class Factory extends InstanceFactory<Object> {
+        @Override public Object create(Scope scope) { return new Object(); }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Scope;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class FactorySlots_ClassLoadingTest {
+
+    @Test
+    public void lazySlots_LoadOnlyCreatedFactoryClasses() throws Exception {
+        // given
+        RecordingClassLoader classLoader = new RecordingClassLoader(getClass().getClassLoader());
+        Method createFirst = classLoader.loadClass(LazySlots.class.getName()).getDeclaredMethod("createFirst");
+        createFirst.setAccessible(true);
+
+        // when
+        Object factory = createFirst.invoke(null);
+
+        // then
+        assertThat(factory.getClass().getName()).isEqualTo(UsedFactory.class.getName());
+        assertThat(classLoader.loaded).contains(UsedFactory.class.getName());
+        assertThat(classLoader.loaded).doesNotContain(UnusedFactory.class.getName());
+    }
+
+    /* Same shape as the slots of a generated lazy index. */
+    static class LazySlots extends FactorySlots {
+        LazySlots() { super(2); }
+
+        @Override Object create(int slot) {
+            switch (slot) {
+                case 0:
+                    return new UsedFactory();
+                case 1:
+                    return new UnusedFactory();
+                default:
+                    return null;
+            }
+        }
+
+        static Object createFirst() {
+            return new LazySlots().get(0);
+        }
+    }
+
+    static class UsedFactory extends InstanceFactory<Object> {
+        @Override public Object create(Scope scope) { return new Object(); }
+    }
+
+    static class UnusedFactory extends InstanceFactory<Object> {
+        @Override public Object create(Scope scope) { return new Object(); }
+    }
+
+    /* Loads magnet classes itself, so that loading of each of them is recorded. */
+    private static class RecordingClassLoader extends ClassLoader {
+        final Set<String> loaded = ConcurrentHashMap.newKeySet();
+
+        RecordingClassLoader(ClassLoader parent) { super(parent); }
+
+        @Override protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith("magnet.")) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null) {
+                    byte[] bytes = readClass(name);
+                    type = defineClass(name, bytes, 0, bytes.length);
+                    loaded.add(name);
+                }
+                if (resolve) resolveClass(type);
+                return type;
+            }
+        }
+
+        private byte[] readClass(String name) throws ClassNotFoundException {
+            try (InputStream input = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                if (input == null) throw new ClassNotFoundException(name);
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                for (int count; (count = input.read(buffer)) != -1; ) {
+                    output.write(buffer, 0, count);
+                }
+                return output.toByteArray();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+}
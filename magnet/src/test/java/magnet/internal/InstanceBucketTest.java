@@ -1,11 +1,15 @@
 package magnet.internal;
 
 import magnet.Classifier;
+import magnet.Visitor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.google.common.truth.Truth.assertThat;
@@ -18,6 +22,7 @@ public class InstanceBucketTest {
 
     @Mock private Interface1 instance1;
     @Mock private Interface1 instance2;
+    @Mock private Interface1 instance3;
 
     @Mock private InstanceBucket.OnInstanceListener listener;
     @Mock private MagnetScope scope;
@@ -52,6 +57,40 @@ public class InstanceBucketTest {
         assertThat(result).containsExactly(instance1, instance2);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_getInstances_ManyItems_CachedUntilNextRegistration() {
+        InstanceBucket<Interface1> instances = new InstanceBucket(
+            scope, factory1, Interface1.class, instance1, Classifier.NONE, listener
+        );
+        instances.registerObject(factory2, Interface1.class, instance2, Classifier.NONE);
+        List<Interface1> result1 = instances.getMany();
+        List<Interface1> result2 = instances.getMany();
+
+        instances.registerObject(null, Interface1.class, instance3, Classifier.NONE);
+        List<Interface1> result3 = instances.getMany();
+
+        assertThat(result2).isSameInstanceAs(result1);
+        assertThat(result3).containsExactly(instance1, instance2, instance3).inOrder();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_copyWithObject_KeepsOriginalBucket() {
+        InstanceBucket<Interface1> instances = new InstanceBucket(
+            scope, factory1, Interface1.class, instance1, Classifier.NONE, listener
+        );
+        instances.registerObject(factory2, Interface1.class, instance2, Classifier.NONE);
+
+        InstanceBucket<Interface1> copy = instances.copyWithObject(
+            null, Interface1.class, instance3, Classifier.NONE
+        );
+
+        assertThat(instances.getMany()).containsExactly(instance1, instance2).inOrder();
+        assertThat(copy.getMany()).containsExactly(instance1, instance2, instance3).inOrder();
+        assertThat(copy.getOptional(null)).isSameInstanceAs(instance3);
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void test_getSingleInstance() {
@@ -62,6 +101,64 @@ public class InstanceBucketTest {
         assertThat(result).isSameInstanceAs(instance1);
     }
 
+    @Test(expected = IllegalStateException.class)
+    @SuppressWarnings("unchecked")
+    public void test_getSingleInstance_ManyItems_Fails() {
+        InstanceBucket<Interface1> instances = new InstanceBucket(
+            scope, factory1, Interface1.class, instance1, Classifier.NONE, listener
+        );
+        instances.registerObject(factory2, Interface1.class, instance2, Classifier.NONE);
+        instances.getSingleInstance();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_getOptional_SingleItem_MatchesFactoryKey() {
+        InstanceBucket<Interface1> instances = new InstanceBucket(
+            scope, factory1, Interface1.class, instance1, Classifier.NONE, listener
+        );
+        assertThat(instances.getOptional(InstanceFactory.getFactoryKey(factory1))).isSameInstanceAs(instance1);
+        assertThat(instances.getOptional(InstanceFactory.getFactoryKey(factory2))).isNull();
+        assertThat(instances.getOptional(null)).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_accept_ManyItems_CreatesInstanceViews() {
+        // given
+        InstanceBucket<Interface1> instances = new InstanceBucket(
+            scope, factory1, Interface1.class, instance1, "classifier", listener
+        );
+        instances.registerObject(null, Interface1.class, instance2, "classifier");
+        List<Visitor.Instance> visited = new ArrayList<>();
+
+        // when
+        instances.accept(new InstanceCollector(visited));
+
+        // then
+        assertThat(visited).hasSize(2);
+        assertThat(visited.get(0).getProvision()).isEqualTo(Visitor.Provision.INJECTED);
+        assertThat(visited.get(0).getType()).isEqualTo(Interface1.class);
+        assertThat(visited.get(0).getClassifier()).isEqualTo("classifier");
+        assertThat(visited.get(0).getValue()).isSameInstanceAs(instance1);
+        assertThat(visited.get(1).getProvision()).isEqualTo(Visitor.Provision.BOUND);
+        assertThat(visited.get(1).getType()).isEqualTo(Interface1.class);
+        assertThat(visited.get(1).getClassifier()).isEqualTo("classifier");
+        assertThat(visited.get(1).getValue()).isSameInstanceAs(instance2);
+    }
+
+    private static class InstanceCollector implements Visitor {
+        private final List<Instance> visited;
+
+        InstanceCollector(List<Instance> visited) {
+            this.visited = visited;
+        }
+
+        @Override public boolean onEnterScope(@NotNull Scope scope, @Nullable Scope parent) { return true; }
+        @Override public boolean onInstance(@NotNull Instance instance) { return visited.add(instance); }
+        @Override public void onExitScope(@NotNull Scope scope) {}
+    }
+
     interface Interface1 {}
     abstract static class Factory1 extends InstanceFactory<Interface1> {}
     abstract static class Factory2 extends InstanceFactory<Interface1> {}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Classifier;
+import magnet.Scope;
+import magnet.Scoping;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class InstanceDispatcherTest {
+
+    @Test
+    public void factories_UseTablesOrDefaults() {
+        // given
+        TestDispatcher dispatcher = new TestDispatcher();
+
+        // when
+        InstanceFactory factory = dispatcher.getFactory(2);
+
+        // then
+        assertThat(dispatcher.getType(2)).isEqualTo(Type2.class);
+        assertThat(factory.getScoping()).isEqualTo(Scoping.DIRECT);
+        assertThat(factory.getLimit()).isEqualTo("");
+        assertThat(factory.getCompiledSelector()).isNull();
+        assertThat(factory.isDisposable()).isTrue();
+        assertThat(factory.isNullable()).isFalse();
+    }
+
+    @Test
+    public void factories_UseNullableTable() {
+        // given
+        InstanceDispatcher dispatcher = new InstanceDispatcher(
+            new Class[]{Type1.class, Type1.class},
+            new Scoping[]{Scoping.TOPMOST, Scoping.TOPMOST},
+            null,
+            null,
+            null,
+            new boolean[]{false, true}
+        ) {
+            @Override public Object create(int id, Scope scope) { return null; }
+        };
+
+        // then
+        assertThat(dispatcher.getFactory(0).isNullable()).isFalse();
+        assertThat(dispatcher.getFactory(1).isNullable()).isTrue();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unknownId_Fails() {
+        new TestDispatcher().getFactory(3);
+    }
+
+    @Test
+    public void factoriesOfSameType_AreScopedSeparately() {
+        // given
+        TestDispatcher dispatcher = new TestDispatcher();
+        Scope scope = createRootScope(dispatcher);
+
+        // when
+        List<Type1> instances = scope.getMany(Type1.class);
+
+        // then
+        assertThat(instances).hasSize(2);
+        assertThat(instances.get(0)).isNotSameInstanceAs(instances.get(1));
+        assertThat(scope.getMany(Type1.class)).isEqualTo(instances);
+    }
+
+    @Test
+    public void dispose_IsDispatchedById() {
+        // given
+        TestDispatcher dispatcher = new TestDispatcher();
+        Scope scope = createRootScope(dispatcher);
+        Type2 instance = scope.getSingle(Type2.class);
+
+        // when
+        dispatcher.getFactory(2).dispose(instance);
+
+        // then
+        assertThat(instance.disposed).isTrue();
+    }
+
+    private static Scope createRootScope(TestDispatcher dispatcher) {
+        InstanceFactory[] factories = new InstanceFactory[]{
+            dispatcher.getFactory(0),
+            dispatcher.getFactory(1),
+            dispatcher.getFactory(2)
+        };
+        Map<Class, Object> index = new HashMap<>();
+        index.put(Type1.class, new Range(0, 2, Classifier.NONE));
+        index.put(Type2.class, new Range(2, 1, Classifier.NONE));
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        instanceManager.register(factories, index);
+        return InternalFactory.createRootScope(instanceManager);
+    }
+
+    interface Type1 {}
+
+    static class Type2 {
+        boolean disposed;
+    }
+
+    private static class TestDispatcher extends InstanceDispatcher {
+        TestDispatcher() {
+            super(
+                new Class[]{Type1.class, Type1.class, Type2.class},
+                new Scoping[]{Scoping.TOPMOST, Scoping.TOPMOST, Scoping.DIRECT},
+                null,
+                null,
+                new boolean[]{false, false, true}
+            );
+        }
+
+        @Override public Object create(int id, Scope scope) {
+            switch (id) {
+                case 0:
+                case 1:
+                    return new Type1() {};
+                case 2:
+                    return new Type2();
+                default:
+                    throw new IllegalStateException();
+            }
+        }
+
+        @Override public void dispose(int id, Object instance) {
+            if (id == 2) {
+                ((Type2) instance).disposed = true;
+                return;
+            }
+            super.dispose(id, instance);
+        }
+    }
+}
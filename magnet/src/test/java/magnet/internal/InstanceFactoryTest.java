@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Scope;
+import magnet.Scoping;
+import magnet.Selector;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class InstanceFactoryTest {
+
+    @Test
+    public void describedFactory_ProvidesMetadataFromFields() {
+        // given
+        Selector selector = Selector.clause("android", "api", Selector.GREATER_OR_EQUAL, 21);
+        InstanceFactory factory = new DescribedFactory(selector);
+
+        // then
+        assertThat(InstanceFactory.scopingOf(factory)).isEqualTo(Scoping.DIRECT);
+        assertThat(InstanceFactory.limitOf(factory)).isEqualTo("activity");
+        assertThat(InstanceFactory.siblingTypesOf(factory)).isNull();
+        assertThat(InstanceFactory.compiledSelectorOf(factory)).isSameInstanceAs(selector);
+        assertThat(InstanceFactory.disposableOf(factory)).isTrue();
+        assertThat(InstanceFactory.nullableOf(factory)).isFalse();
+        assertThat(factory.getScoping()).isEqualTo(Scoping.DIRECT);
+        assertThat(factory.getLimit()).isEqualTo("activity");
+    }
+
+    @Test
+    public void nullableFactory_IsNullable() {
+        // given
+        InstanceFactory factory = new NullableFactory();
+
+        // then
+        assertThat(InstanceFactory.nullableOf(factory)).isTrue();
+        assertThat(factory.isNullable()).isTrue();
+    }
+
+    @Test
+    public void factoryWithGetters_ProvidesMetadataFromGetters() {
+        // given
+        InstanceFactory factory = new OverridingFactory();
+
+        // then
+        assertThat(InstanceFactory.scopingOf(factory)).isEqualTo(Scoping.UNSCOPED);
+        assertThat(InstanceFactory.limitOf(factory)).isEqualTo("");
+        assertThat(InstanceFactory.compiledSelectorOf(factory)).isNull();
+        assertThat(InstanceFactory.disposableOf(factory)).isTrue();
+    }
+
+    @Test
+    public void defaultFactory_ProvidesDefaultMetadata() {
+        // given
+        InstanceFactory factory = new DefaultFactory();
+
+        // then
+        assertThat(InstanceFactory.scopingOf(factory)).isEqualTo(Scoping.TOPMOST);
+        assertThat(InstanceFactory.limitOf(factory)).isEqualTo("");
+        assertThat(InstanceFactory.siblingTypesOf(factory)).isNull();
+        assertThat(InstanceFactory.disposableOf(factory)).isFalse();
+    }
+
+    private static class DescribedFactory extends InstanceFactory<Object> {
+        DescribedFactory(Selector selector) { super(Scoping.DIRECT, "activity", null, selector, true); }
+        @Override public Object create(Scope scope) { return new Object(); }
+        @Override public void dispose(Object instance) {}
+    }
+
+    private static class NullableFactory extends InstanceFactory<Object> {
+        NullableFactory() { super(Scoping.TOPMOST, "", null, null, false, true); }
+        @Override public Object create(Scope scope) { return null; }
+    }
+
+    private static class OverridingFactory extends InstanceFactory<Object> {
+        @Override public Object create(Scope scope) { return new Object(); }
+        @Override public Scoping getScoping() { return Scoping.UNSCOPED; }
+        @Override public boolean isDisposable() { return true; }
+        @Override public void dispose(Object instance) {}
+    }
+
+    private static class DefaultFactory extends InstanceFactory<Object> {
+        @Override public Object create(Scope scope) { return new Object(); }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class InstantiationContextTest {
+
+    private InstantiationContext context;
+
+    @Before
+    public void before() {
+        context = new InstantiationContext();
+    }
+
+    @Test
+    public void deepestDependency_IsReported() {
+        // given
+        context.onBeginInstantiation(1, 10);
+        context.onDependencyFound(2, 10);
+        context.onDependencyFound(5, 11);
+        context.onDependencyFound(3, 12);
+
+        // when
+        int dependencyDepth = context.onEndInstantiation();
+
+        // then
+        assertThat(dependencyDepth).isEqualTo(5);
+        assertThat(context.getEndedDependencyKey()).isEqualTo(11);
+    }
+
+    @Test
+    public void dependencies_AreTrackedPerInstantiation() {
+        // given
+        context.onBeginInstantiation(1, 10);
+        context.onBeginInstantiation(2, 10);
+        context.onDependencyFound(4, 10);
+
+        // when
+        int innerDepth = context.onEndInstantiation();
+        int outerDepth = context.onEndInstantiation();
+
+        // then
+        assertThat(innerDepth).isEqualTo(4);
+        assertThat(outerDepth).isEqualTo(0);
+        assertThat(context.getEndedDependencyKey()).isEqualTo(-1);
+    }
+
+    @Test
+    public void dependenciesDeeperThanInstantiatingScope_AreIgnored() {
+        // given
+        context.onBeginInstantiation(1, 0);
+        context.onDependencyFound(1, 10);
+
+        // when
+        int dependencyDepth = context.onEndInstantiation();
+
+        // then
+        assertThat(dependencyDepth).isEqualTo(0);
+        assertThat(context.getEndedDependencyKey()).isEqualTo(-1);
+    }
+
+    @Test
+    public void deepStack_IsSupported() {
+        for (int key = 0; key < 100; key++) {
+            context.onBeginInstantiation(key * 31, 10);
+        }
+        for (int key = 100; key-- > 0; ) {
+            context.onEndInstantiation();
+        }
+        context.onBeginInstantiation(0, 10);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void circularDependency_IsDetected() {
+        context.onBeginInstantiation(1, 10);
+        context.onBeginInstantiation(200, 10);
+        context.onBeginInstantiation(1, 10);
+    }
+
+    @Test
+    public void endedKey_CanBeInstantiatedAgain() {
+        context.onBeginInstantiation(1, 10);
+        context.onBeginInstantiation(2, 10);
+        context.onEndInstantiation();
+        context.onBeginInstantiation(2, 10);
+    }
+}
@@ -93,16 +93,7 @@ public class InstrumentedScope implements Scope, FactoryFilter {
     @SuppressWarnings("unchecked") public <T> InstrumentedScope instrumentObjectIntoScope(
         InstanceFactory<T> factory, Class<T> objectType, T object, String classifier
     ) {
-        String key = MagnetScope.key(objectType, classifier);
-        InstanceBucket existing = scope.instanceBuckets.get(key);
-        if (existing == null) {
-            scope.instanceBuckets.put(
-                key,
-                new InstanceBucket(scope, factory, objectType, object, classifier, scope)
-            );
-        } else {
-            existing.registerObject(factory, objectType, object, classifier);
-        }
+        scope.registerInstance(MagnetScope.key(objectType, classifier), factory, objectType, object, classifier);
         return this;
     }
 
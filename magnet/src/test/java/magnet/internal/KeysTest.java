@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Classifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class KeysTest {
+
+    @Test
+    public void samePair_SameId() {
+        int id1 = Keys.id(Type1.class, "classifier");
+        int id2 = Keys.id(Type1.class, "classifier");
+        assertThat(id1).isEqualTo(id2);
+    }
+
+    @Test
+    public void differentClassifiers_DifferentIds() {
+        int id1 = Keys.id(Type2.class, Classifier.NONE);
+        int id2 = Keys.id(Type2.class, "classifier");
+        assertThat(id1).isNotEqualTo(id2);
+    }
+
+    @Test
+    public void differentTypes_DifferentIds() {
+        int id1 = Keys.id(Type3.class, Classifier.NONE);
+        int id2 = Keys.id(Type4.class, Classifier.NONE);
+        assertThat(id1).isNotEqualTo(id2);
+    }
+
+    @Test
+    public void registeredPair_KeepsRegisteredId() {
+        int id = Keys.register(Type5.class, Classifier.NONE, 100_000);
+        assertThat(id).isEqualTo(100_000);
+        assertThat(Keys.id(Type5.class, Classifier.NONE)).isEqualTo(100_000);
+    }
+
+    @Test
+    public void registeredPair_OccupiedId_ReceivesAnotherId() {
+        int id1 = Keys.register(Type6.class, Classifier.NONE, 100_001);
+        int id2 = Keys.register(Type7.class, Classifier.NONE, 100_001);
+        assertThat(id1).isEqualTo(100_001);
+        assertThat(id2).isNotEqualTo(100_001);
+    }
+
+    @Test
+    public void toString_ContainsClassifierAndType() {
+        int id = Keys.id(Type1.class, "classifier");
+        assertThat(Keys.toString(id)).isEqualTo("classifier@" + Type1.class.getName());
+    }
+
+    private interface Type1 {}
+    private interface Type2 {}
+    private interface Type3 {}
+    private interface Type4 {}
+    private interface Type5 {}
+    private interface Type6 {}
+    private interface Type7 {}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class LimitsTest {
+
+    @Test
+    public void sameLimit_SameId() {
+        int id1 = Limits.id("limits-test-one");
+        int id2 = Limits.register("limits-test-one");
+        assertThat(id1).isEqualTo(id2);
+    }
+
+    @Test
+    public void differentLimits_DifferentIds() {
+        int id1 = Limits.id("limits-test-two");
+        int id2 = Limits.id("limits-test-three");
+        assertThat(id1).isNotEqualTo(id2);
+    }
+
+    @Test
+    public void mask_ContainsAllLimits() {
+        long[] mask = Limits.mask(new String[]{"limits-test-four", "limits-test-five"});
+        assertThat(Limits.contains(mask, Limits.id("limits-test-four"))).isTrue();
+        assertThat(Limits.contains(mask, Limits.id("limits-test-five"))).isTrue();
+        assertThat(Limits.contains(mask, Limits.id("limits-test-six"))).isFalse();
+    }
+
+    @Test
+    public void mask_DoesNotContainIdsBeyondItsLength() {
+        long[] mask = new long[]{-1L};
+        assertThat(Limits.contains(mask, 63)).isTrue();
+        assertThat(Limits.contains(mask, 64)).isFalse();
+    }
+}
@@ -174,6 +174,24 @@ public class MagnetInstanceManagerTest {
         assertThat(factories.get(0)).isEqualTo(instanceFactoryType3Impl1);
     }
 
+    @Test(expected = IllegalStateException.class)
+    public void registerInstanceFactories_FailsWhenRegistryIsRequiredAndMissing() {
+        // when
+        new MagnetInstanceManager().registerInstanceFactories(true);
+    }
+
+    @Test
+    public void registerInstanceFactories_KeepsEmptyRegistryWhenRegistryIsMissing() {
+        // given
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+
+        // when
+        instanceManager.registerInstanceFactories(false);
+
+        // then
+        assertThat(instanceManager.hasInstanceFactories(Type1.class, Classifier.NONE)).isFalse();
+    }
+
     interface Type1 {}
     interface Type2 {}
     interface Type3 {}
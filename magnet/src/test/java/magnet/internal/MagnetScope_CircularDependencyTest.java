@@ -27,6 +27,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static com.google.common.truth.Truth.assertThat;
+
 @RunWith(JUnit4.class)
 public class MagnetScope_CircularDependencyTest {
 
@@ -52,6 +54,31 @@ public class MagnetScope_CircularDependencyTest {
         scope.getSingle(MenuItem.class, "five");
     }
 
+    @Test(expected = IllegalStateException.class)
+    public void dependency_Six_Subscope_Six() {
+        scope.getSingle(MenuItem.class, "six");
+    }
+
+    @Test
+    public void dependency_Seven_SubscopeBoundObject_IsNotCircular() {
+        // when
+        MenuItem seven = scope.getSingle(MenuItem.class, "seven");
+
+        // then
+        assertThat(seven).isInstanceOf(MenuItemSeven.class);
+        assertThat(scope.getSingle(MenuItem.class, "seven")).isSameInstanceAs(seven);
+    }
+
+    @Test
+    public void dependency_Eight_SubscopeDirectInstance_IsKeptInRootScope() {
+        // when
+        MenuItem eight = scope.getSingle(MenuItem.class, "eight");
+
+        // then
+        assertThat(eight).isInstanceOf(MenuItemEight.class);
+        assertThat(scope.getSingle(MenuItem.class, "eight")).isSameInstanceAs(eight);
+    }
+
     private static class MenuItemOneFactory extends InstanceFactory<MenuItem> {
         @Override public MenuItem create(Scope scope) {
             scope.getSingle(MenuItem.class, "two");
@@ -91,6 +118,38 @@ public class MagnetScope_CircularDependencyTest {
         @Override public Scoping getScoping() { return Scoping.TOPMOST; }
     }
 
+    private static class MenuItemSixFactory extends InstanceFactory<MenuItem> {
+        @Override public MenuItem create(Scope scope) {
+            scope.createSubscope().getSingle(MenuItem.class, "six");
+            return new MenuItemSix();
+        }
+        @Override public Scoping getScoping() { return Scoping.TOPMOST; }
+    }
+
+    private static class MenuItemSevenFactory extends InstanceFactory<MenuItem> {
+        @Override public MenuItem create(Scope scope) {
+            Scope subscope = scope.createSubscope().bind(Dependency.class, new Dependency());
+            subscope.getSingle(Dependency.class);
+            return new MenuItemSeven();
+        }
+        @Override public Scoping getScoping() { return Scoping.TOPMOST; }
+    }
+
+    private static class MenuItemEightFactory extends InstanceFactory<MenuItem> {
+        @Override public MenuItem create(Scope scope) {
+            scope.createSubscope().getSingle(MenuItem.class, "direct");
+            return new MenuItemEight();
+        }
+        @Override public Scoping getScoping() { return Scoping.TOPMOST; }
+    }
+
+    private static class MenuItemDirectFactory extends InstanceFactory<MenuItem> {
+        @Override public MenuItem create(Scope scope) {
+            return new MenuItemDirect();
+        }
+        @Override public Scoping getScoping() { return Scoping.DIRECT; }
+    }
+
     private static class StubInstanceManager implements InstanceManager {
         private final Map<String, InstanceFactory<MenuItem>> factories;
 
@@ -101,6 +160,10 @@ public class MagnetScope_CircularDependencyTest {
             factories.put("three", new MenuItemThreeFactory());
             factories.put("four", new MenuItemFourFactory());
             factories.put("five", new MenuItemFiveFactory());
+            factories.put("six", new MenuItemSixFactory());
+            factories.put("seven", new MenuItemSevenFactory());
+            factories.put("eight", new MenuItemEightFactory());
+            factories.put("direct", new MenuItemDirectFactory());
         }
 
         @Override
@@ -128,6 +191,12 @@ public class MagnetScope_CircularDependencyTest {
     private static class MenuItemTwo implements MenuItem {}
     private static class MenuItemThree implements MenuItem {}
     private static class MenuItemFour implements MenuItem {}
+    private static class MenuItemSix implements MenuItem {}
+    private static class MenuItemSeven implements MenuItem {}
+    private static class MenuItemEight implements MenuItem {}
+    private static class MenuItemDirect implements MenuItem {}
+
+    private static class Dependency {}
 
     private static class MenuItemFive implements MenuItem {
         public MenuItemFive(Scope scope) {
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Classifier;
+import magnet.Scope;
+import magnet.Selector;
+import magnet.SelectorFilter;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class MagnetScope_CompiledSelectorTest {
+
+    @Test
+    public void compiledSelector_IsPassedToFilter() {
+        // given
+        CompiledSelectorFilter selectorFilter = new CompiledSelectorFilter();
+        Scope scope = createScope(Selector.clause("test", "api", Selector.GREATER_OR_EQUAL, 28));
+        scope.bind(SelectorFilter.class, selectorFilter, "test");
+
+        // when
+        Interface object = scope.getOptional(Interface.class);
+
+        // then
+        assertThat(object).isNotNull();
+        assertThat(selectorFilter.selector.operator).isEqualTo(Selector.GREATER_OR_EQUAL);
+        assertThat(selectorFilter.selector.intOperand).isEqualTo(28);
+    }
+
+    @Test
+    public void compiledSelector_IsPassedToLegacyFilterAsArray() {
+        // given
+        LegacySelectorFilter selectorFilter = new LegacySelectorFilter();
+        Scope scope = createScope(Selector.clause("test", "api", Selector.IN, 1, 19));
+        scope.bind(SelectorFilter.class, selectorFilter, "test");
+
+        // when
+        scope.getOptional(Interface.class);
+
+        // then
+        assertThat(selectorFilter.selector).asList().containsExactly("test", "api", "in", "1", "19").inOrder();
+    }
+
+    @Test
+    public void compiledSelector_FiltersGetMany() {
+        // given
+        Scope scope = createScope(Selector.clause("test", "api", Selector.GREATER_OR_EQUAL, 28));
+        scope.bind(SelectorFilter.class, new RejectingSelectorFilter(), "test");
+
+        // when
+        List<Interface> objects = scope.getMany(Interface.class);
+
+        // then
+        assertThat(objects).isEmpty();
+    }
+
+    @Test
+    public void booleanClause_ToString() {
+        Selector selector = Selector.clause("features", "newPipeline", Selector.NOT_EQUAL, true);
+        assertThat(selector.booleanOperand).isTrue();
+        assertThat(selector.toString()).isEqualTo("features.newPipeline != true");
+    }
+
+    @Test
+    public void stringBooleanClause_IsParsedIgnoringCase() {
+        Selector selector = Selector.clause("features", "newPipeline", Selector.EQUAL, "TRUE");
+        assertThat(selector.booleanOperand).isTrue();
+        assertThat(selector.toString()).isEqualTo("features.newPipeline == TRUE");
+    }
+
+    @Test
+    public void stringRangeClause_ToArray() {
+        Selector selector = Selector.clause("custom", "release", Selector.IN, "alpha", "beta");
+        assertThat(selector.toArray()).asList().containsExactly("custom", "release", "in", "alpha", "beta").inOrder();
+        assertThat(selector.toString()).isEqualTo("custom.release in alpha..beta");
+    }
+
+    @Test
+    public void andExpression_ShortCircuits() {
+        // given
+        CountingSelectorFilter first = new CountingSelectorFilter(false);
+        CountingSelectorFilter second = new CountingSelectorFilter(true);
+        Scope scope = createScope(Selector.and(
+            Selector.clause("first", "value", Selector.EQUAL, true),
+            Selector.clause("second", "value", Selector.EQUAL, true)
+        ));
+        scope.bind(SelectorFilter.class, first, "first");
+        scope.bind(SelectorFilter.class, second, "second");
+
+        // when
+        Interface object = scope.getOptional(Interface.class);
+
+        // then
+        assertThat(object).isNull();
+        assertThat(first.filterCalls).isEqualTo(1);
+        assertThat(second.filterCalls).isEqualTo(0);
+    }
+
+    @Test
+    public void orAndNotExpressions_AreEvaluated() {
+        // given
+        Scope scope = createScope(Selector.or(
+            Selector.clause("first", "value", Selector.EQUAL, true),
+            Selector.not(Selector.clause("second", "value", Selector.EQUAL, true))
+        ));
+        scope.bind(SelectorFilter.class, new CountingSelectorFilter(false), "first");
+        scope.bind(SelectorFilter.class, new CountingSelectorFilter(false), "second");
+
+        // when
+        Interface object = scope.getOptional(Interface.class);
+
+        // then
+        assertThat(object).isNotNull();
+    }
+
+    @Test
+    public void clauseResults_AreCachedPerScope() {
+        // given
+        CountingSelectorFilter first = new CountingSelectorFilter(true);
+        CountingSelectorFilter second = new CountingSelectorFilter(false);
+        Scope scope = createScope(Selector.and(
+            Selector.clause("first", "value", Selector.EQUAL, true),
+            Selector.clause("second", "value", Selector.EQUAL, true)
+        ));
+        scope.bind(SelectorFilter.class, first, "first");
+        scope.bind(SelectorFilter.class, second, "second");
+
+        // when
+        scope.getOptional(Interface.class);
+        scope.getOptional(Interface.class);
+        second.result = true;
+        second.changed();
+        Interface object = scope.getOptional(Interface.class);
+
+        // then
+        assertThat(object).isNotNull();
+        assertThat(first.filterCalls).isEqualTo(1);
+        assertThat(second.filterCalls).isEqualTo(2);
+    }
+
+    @Test
+    public void compoundExpression_ToString() {
+        Selector selector = Selector.and(
+            Selector.clause("android", "api", Selector.GREATER_OR_EQUAL, 26),
+            Selector.not(Selector.clause("features", "newPipeline", Selector.EQUAL, true))
+        );
+        assertThat(selector.toString()).isEqualTo("(android.api >= 26 && !features.newPipeline == true)");
+    }
+
+    private static Scope createScope(Selector selector) {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        Map<Class, Object> index = new HashMap<>();
+        index.put(Interface.class, new Range(0, 1, Classifier.NONE));
+        instanceManager.register(new InstanceFactory[]{new SelectedFactory(selector)}, index);
+        return new MagnetScope(null, instanceManager);
+    }
+
+    interface Interface {}
+
+    static class Implementation implements Interface {}
+
+    static class SelectedFactory extends InstanceFactory<Interface> {
+        private final Selector selector;
+
+        SelectedFactory(Selector selector) { this.selector = selector; }
+
+        @Override public Interface create(Scope scope) { return new Implementation(); }
+        @Override public Selector getCompiledSelector() { return selector; }
+    }
+
+    static class CompiledSelectorFilter extends SelectorFilter {
+        Selector selector;
+
+        @Override public boolean filter(@NotNull String[] selector) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public boolean filter(@NotNull Selector selector) {
+            this.selector = selector;
+            return true;
+        }
+    }
+
+    static class RejectingSelectorFilter extends SelectorFilter {
+        @Override public boolean filter(@NotNull String[] selector) { return false; }
+        @Override public boolean filter(@NotNull Selector selector) { return false; }
+    }
+
+    static class CountingSelectorFilter extends SelectorFilter {
+        int filterCalls;
+        boolean result;
+
+        CountingSelectorFilter(boolean result) { this.result = result; }
+
+        @Override public boolean filter(@NotNull String[] selector) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public boolean filter(@NotNull Selector selector) {
+            filterCalls++;
+            return result;
+        }
+
+        void changed() { invalidate(); }
+    }
+
+    static class LegacySelectorFilter extends SelectorFilter {
+        String[] selector;
+
+        @Override public boolean filter(@NotNull String[] selector) {
+            this.selector = selector;
+            return true;
+        }
+    }
+}
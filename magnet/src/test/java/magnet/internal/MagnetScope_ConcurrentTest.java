@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Classifier;
+import magnet.Scope;
+import magnet.Scoping;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class MagnetScope_ConcurrentTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void topMostInstance_IsCreatedOnce() throws Exception {
+        // given
+        SlowFactory factory = new SlowFactory(Scoping.TOPMOST);
+        Scope root = createConcurrentRootScope(factory);
+
+        // when
+        List<Object> objects = resolveInParallel(root, true);
+
+        // then
+        assertThat(factory.createCount.get()).isEqualTo(1);
+        for (Object object : objects) {
+            assertThat(object).isSameInstanceAs(objects.get(0));
+        }
+    }
+
+    @Test
+    public void directInstance_IsCreatedOncePerScope() throws Exception {
+        // given
+        SlowFactory factory = new SlowFactory(Scoping.DIRECT);
+        Scope root = createConcurrentRootScope(factory);
+
+        // when
+        List<Object> objects = resolveInParallel(root, false);
+
+        // then
+        assertThat(factory.createCount.get()).isEqualTo(1);
+        for (Object object : objects) {
+            assertThat(object).isSameInstanceAs(objects.get(0));
+        }
+    }
+
+    @Test
+    public void unscopedInstance_IsCreatedPerRequest() throws Exception {
+        // given
+        SlowFactory factory = new SlowFactory(Scoping.UNSCOPED);
+        Scope root = createConcurrentRootScope(factory);
+
+        // when
+        resolveInParallel(root, true);
+
+        // then
+        assertThat(factory.createCount.get()).isEqualTo(THREADS);
+    }
+
+    @Test
+    public void subscopes_InheritConcurrency() throws Exception {
+        // given
+        SlowFactory factory = new SlowFactory(Scoping.DIRECT);
+        Scope subscope = createConcurrentRootScope(factory).createSubscope();
+
+        // when
+        resolveInParallel(subscope, false);
+
+        // then
+        assertThat(factory.createCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void manyTopMostInstances_AreCreatedOnce() throws Exception {
+        // given
+        SlowFactory factory1 = new SlowFactory(Scoping.TOPMOST);
+        SlowFactory factory2 = new OtherSlowFactory(Scoping.TOPMOST);
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        Map<Class, Object> index = new HashMap<>();
+        index.put(Interface.class, new Range(0, 2, Classifier.NONE));
+        instanceManager.register(new InstanceFactory[]{factory1, factory2}, index);
+        Scope root = InternalFactory.createConcurrentRootScope(instanceManager);
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<Interface>>> futures = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                Scope target = root.createSubscope();
+                futures.add(executor.submit(new Callable<List<Interface>>() {
+                    @Override public List<Interface> call() {
+                        return target.getMany(Interface.class);
+                    }
+                }));
+            }
+            for (Future<List<Interface>> future : futures) {
+                assertThat(future.get()).hasSize(2);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        assertThat(factory1.createCount.get()).isEqualTo(1);
+        assertThat(factory2.createCount.get()).isEqualTo(1);
+        assertThat(root.getMany(Interface.class)).hasSize(2);
+    }
+
+    private static List<Object> resolveInParallel(Scope scope, boolean useSubscopes) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object>> futures = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                Scope target = useSubscopes ? scope.createSubscope() : scope;
+                futures.add(executor.submit(new Callable<Object>() {
+                    @Override public Object call() throws Exception {
+                        start.await();
+                        return target.getSingle(Interface.class);
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Object> objects = new ArrayList<>(THREADS);
+            for (Future<Object> future : futures) {
+                objects.add(future.get());
+            }
+            return objects;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Scope createConcurrentRootScope(InstanceFactory factory) {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        Map<Class, Object> index = new HashMap<>();
+        index.put(Interface.class, new Range(0, 1, Classifier.NONE));
+        instanceManager.register(new InstanceFactory[]{factory}, index);
+        return InternalFactory.createConcurrentRootScope(instanceManager);
+    }
+
+    interface Interface {}
+
+    static class Implementation implements Interface {}
+
+    static class SlowFactory extends InstanceFactory<Interface> {
+        final AtomicInteger createCount = new AtomicInteger();
+        private final Scoping scoping;
+
+        SlowFactory(Scoping scoping) { this.scoping = scoping; }
+
+        @Override public Interface create(Scope scope) {
+            createCount.incrementAndGet();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Implementation();
+        }
+
+        @Override public Scoping getScoping() { return scoping; }
+    }
+
+    static class OtherSlowFactory extends SlowFactory {
+        OtherSlowFactory(Scoping scoping) { super(scoping); }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.lang.ref.Reference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class MagnetScope_FootprintTest {
+
+    private MagnetScope root;
+
+    @Before
+    public void before() {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        instanceManager.register(new InstanceFactory[0], new HashMap<>());
+        root = new MagnetScope(null, instanceManager);
+    }
+
+    @Test
+    public void newSubscope_HasNoBucketTable() {
+        MagnetScope subscope = (MagnetScope) root.createSubscope();
+        assertThat(subscope.instanceBuckets).isSameInstanceAs(BucketTable.EMPTY);
+    }
+
+    @Test
+    public void lookups_DoNotAllocateBucketTable() {
+        MagnetScope subscope = (MagnetScope) root.createSubscope();
+
+        subscope.getOptional(Type1.class);
+        subscope.getMany(Type1.class);
+
+        assertThat(subscope.instanceBuckets).isSameInstanceAs(BucketTable.EMPTY);
+    }
+
+    @Test
+    public void bucketTable_IsSizedFromUsage() {
+        MagnetScope subscope = (MagnetScope) root.createSubscope();
+
+        subscope.bind(Type1.class, new Type1());
+        assertThat(subscope.instanceBuckets.capacity()).isEqualTo(2);
+
+        subscope.bind(Type2.class, new Type2());
+        subscope.bind(Type3.class, new Type3());
+        assertThat(subscope.instanceBuckets.capacity()).isEqualTo(4);
+        assertThat(BucketTable.EMPTY.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void concurrentSubscope_AllocatesBucketTableOnFirstWrite() {
+        MagnetScope concurrentRoot = MagnetScope.createConcurrentRootScope(new MagnetInstanceManager());
+        MagnetScope subscope = (MagnetScope) concurrentRoot.createSubscope();
+        assertThat(subscope.instanceBuckets).isSameInstanceAs(BucketTable.EMPTY);
+
+        subscope.bind(Type1.class, new Type1());
+
+        assertThat(subscope.instanceBuckets).isNotSameInstanceAs(BucketTable.EMPTY);
+        assertThat(BucketTable.EMPTY.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void newSubscope_AllocatesScopeAndChildReferenceOnly() {
+        // given
+        root.createSubscope();
+        int objectsBefore = countReachableObjects(root);
+
+        // when
+        MagnetScope subscope = (MagnetScope) root.createSubscope();
+
+        // then
+        // The scope and the weak reference its parent keeps to it. Before buckets were
+        // allocated lazily, a subscope also allocated a bucket map and a thread-local.
+        assertThat(countReachableObjects(root, subscope) - objectsBefore).isEqualTo(2);
+    }
+
+    /*
+     * Counts objects reachable through instance fields of magnet classes, arrays and
+     * references. Other objects are counted, but not traversed.
+     */
+    private static int countReachableObjects(Object... roots) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> queue = new ArrayDeque<>();
+        for (Object root : roots) queue.add(root);
+        while (!queue.isEmpty()) {
+            Object object = queue.poll();
+            if (!visited.add(object)) continue;
+            Class<?> type = object.getClass();
+            if (type.isArray()) {
+                if (!type.getComponentType().isPrimitive()) {
+                    for (int i = 0, length = Array.getLength(object); i < length; i++) {
+                        Object element = Array.get(object, i);
+                        if (element != null) queue.add(element);
+                    }
+                }
+                continue;
+            }
+            if (object instanceof Reference) {
+                Object referent = ((Reference<?>) object).get();
+                if (referent != null) queue.add(referent);
+            }
+            for (; type != null && type.getName().startsWith("magnet."); type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) continue;
+                    field.setAccessible(true);
+                    try {
+                        Object value = field.get(object);
+                        if (value != null) queue.add(value);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+        }
+        return visited.size();
+    }
+
+    private static class Type1 {}
+    private static class Type2 {}
+    private static class Type3 {}
+}
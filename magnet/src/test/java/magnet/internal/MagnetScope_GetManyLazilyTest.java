@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Classifier;
+import magnet.Scope;
+import magnet.Scoping;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class MagnetScope_GetManyLazilyTest {
+
+    private PluginFactory factory1;
+    private PluginFactory factory2;
+    private Scope scope;
+
+    @Before
+    public void before() {
+        factory1 = new PluginFactory();
+        factory2 = new OtherPluginFactory();
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        Map<Class, Object> index = new HashMap<>();
+        index.put(Plugin.class, new Range(0, 2, Classifier.NONE));
+        index.put(PluginHost.class, new Range(2, 1, Classifier.NONE));
+        instanceManager.register(new InstanceFactory[]{factory1, factory2, new PluginHostFactory()}, index);
+        scope = new MagnetScope(null, instanceManager);
+    }
+
+    @Test
+    public void size_CreatesNoObjects() {
+        // when
+        List<Plugin> plugins = scope.getManyLazily(Plugin.class);
+
+        // then
+        assertThat(plugins.size()).isEqualTo(2);
+        assertThat(factory1.createCount).isEqualTo(0);
+        assertThat(factory2.createCount).isEqualTo(0);
+    }
+
+    @Test
+    public void get_CreatesRequestedObjectOnly() {
+        // given
+        List<Plugin> plugins = scope.getManyLazily(Plugin.class);
+
+        // when
+        Plugin plugin = plugins.get(1);
+
+        // then
+        assertThat(plugin).isNotNull();
+        assertThat(factory1.createCount).isEqualTo(0);
+        assertThat(factory2.createCount).isEqualTo(1);
+    }
+
+    @Test
+    public void get_KeepsObjectInScope() {
+        // given
+        List<Plugin> plugins = scope.getManyLazily(Plugin.class);
+
+        // when
+        Plugin plugin1 = plugins.get(0);
+        Plugin plugin2 = plugins.get(0);
+
+        // then
+        assertThat(plugin2).isSameInstanceAs(plugin1);
+        assertThat(scope.getMany(Plugin.class)).contains(plugin1);
+        assertThat(factory1.createCount).isEqualTo(1);
+    }
+
+    @Test
+    public void getManyLazily_WhileCreatingInstance_CreatesObjects() {
+        // when
+        scope.getSingle(PluginHost.class);
+
+        // then
+        assertThat(factory1.createCount).isEqualTo(1);
+        assertThat(factory2.createCount).isEqualTo(1);
+    }
+
+    @Test
+    public void getManyLazily_NoFactories_ReturnsEmptyList() {
+        // when
+        List<String> objects = scope.getManyLazily(String.class);
+
+        // then
+        assertThat(objects).isEmpty();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void get_DisposedScope_Fails() {
+        // given
+        List<Plugin> plugins = scope.getManyLazily(Plugin.class);
+        scope.dispose();
+
+        // when
+        plugins.get(0);
+    }
+
+    @Test
+    public void nullableFactoryProvidingNoObject_IsSkippedLikeInGetMany() {
+        // given
+        Scope scope = createScope(new NullPluginFactory(true), factory1);
+
+        // when
+        List<Plugin> plugins = scope.getManyLazily(Plugin.class);
+
+        // then
+        assertThat(plugins).hasSize(1);
+        assertThat(factory1.createCount).isEqualTo(0);
+        assertThat(plugins).containsExactlyElementsIn(scope.getMany(Plugin.class));
+    }
+
+    @Test
+    public void nullableFactoryProvidingObject_IsCreatedWithList() {
+        // given
+        NullableCountingPluginFactory nullableFactory = new NullableCountingPluginFactory();
+        Scope scope = createScope(factory1, nullableFactory);
+
+        // when
+        List<Plugin> plugins = scope.getManyLazily(Plugin.class);
+
+        // then
+        assertThat(plugins).hasSize(2);
+        assertThat(factory1.createCount).isEqualTo(0);
+        assertThat(nullableFactory.createCount).isEqualTo(1);
+        assertThat(plugins.get(1)).isNotNull();
+        assertThat(nullableFactory.createCount).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void get_NonNullableFactoryProvidingNoObject_Fails() {
+        // given
+        List<Plugin> plugins = createScope(new NullPluginFactory(false), factory1).getManyLazily(Plugin.class);
+
+        // when
+        plugins.get(0);
+    }
+
+    private static Scope createScope(InstanceFactory... factories) {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        Map<Class, Object> index = new HashMap<>();
+        index.put(Plugin.class, new Range(0, factories.length, Classifier.NONE));
+        instanceManager.register(factories, index);
+        return new MagnetScope(null, instanceManager);
+    }
+
+    interface Plugin {}
+
+    static class PluginImpl implements Plugin {}
+
+    static class PluginHost {
+        PluginHost(List<Plugin> plugins) {}
+    }
+
+    static class PluginFactory extends InstanceFactory<Plugin> {
+        int createCount;
+
+        @Override public Plugin create(Scope scope) {
+            createCount++;
+            return new PluginImpl();
+        }
+
+        @Override public Scoping getScoping() { return Scoping.TOPMOST; }
+    }
+
+    static class OtherPluginFactory extends PluginFactory {}
+
+    static class NullPluginFactory extends InstanceFactory<Plugin> {
+        private final boolean nullable;
+
+        NullPluginFactory(boolean nullable) { this.nullable = nullable; }
+
+        @Override public Plugin create(Scope scope) { return null; }
+        @Override public boolean isNullable() { return nullable; }
+    }
+
+    static class NullableCountingPluginFactory extends PluginFactory {
+        @Override public boolean isNullable() { return true; }
+    }
+
+    static class PluginHostFactory extends InstanceFactory<PluginHost> {
+        @Override public PluginHost create(Scope scope) {
+            return new PluginHost(scope.getManyLazily(Plugin.class));
+        }
+    }
+}
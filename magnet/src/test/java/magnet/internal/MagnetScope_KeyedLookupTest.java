@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Classifier;
+import magnet.Scope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class MagnetScope_KeyedLookupTest {
+
+    private KeyRecordingInstanceManager instanceManager;
+    private Scope scope;
+
+    @Before
+    public void before() {
+        instanceManager = new KeyRecordingInstanceManager();
+        scope = new MagnetScope(null, instanceManager);
+    }
+
+    @Test
+    public void getOptional_PassesKeyToInstanceManager() {
+        // when
+        scope.getOptional(Type1.class, "classifier");
+
+        // then
+        assertThat(instanceManager.keys).containsExactly(
+            MagnetScope.key(Type1.class, "classifier"),
+            MagnetScope.key(Type1.class, "classifier")
+        );
+    }
+
+    @Test
+    public void getMany_PassesKeyToInstanceManager() {
+        // when
+        scope.getMany(Type1.class);
+        scope.getManyLazily(Type1.class);
+
+        // then
+        assertThat(instanceManager.keys).containsExactly(
+            MagnetScope.key(Type1.class, Classifier.NONE),
+            MagnetScope.key(Type1.class, Classifier.NONE)
+        );
+    }
+
+    @Test
+    public void magnetInstanceManager_FindsFactoryByKey() {
+        // given
+        InstanceFactory<Type1> factory = new Type1Factory();
+        MagnetInstanceManager magnetInstanceManager = new MagnetInstanceManager();
+        Map<Class, Object> index = new HashMap<>();
+        index.put(Type1.class, new Range(0, 1, Classifier.NONE));
+        magnetInstanceManager.register(new InstanceFactory[]{factory}, index);
+        int key = MagnetScope.key(Type1.class, Classifier.NONE);
+
+        // when
+        InstanceFactory<Type1> found = magnetInstanceManager
+            .getFilteredInstanceFactory(Type1.class, Classifier.NONE, key, candidate -> true);
+
+        // then
+        assertThat(found).isSameInstanceAs(factory);
+        assertThat(magnetInstanceManager.hasInstanceFactories(Type1.class, Classifier.NONE, key)).isTrue();
+        assertThat(magnetInstanceManager.getManyInstanceFactories(Type1.class, Classifier.NONE, key, candidate -> true))
+            .containsExactly(factory);
+    }
+
+    private static class Type1 {}
+
+    private static class Type1Factory extends InstanceFactory<Type1> {
+        @Override public Type1 create(Scope scope) { return new Type1(); }
+    }
+
+    private static class KeyRecordingInstanceManager implements InstanceManager {
+        final List<Integer> keys = new ArrayList<>();
+
+        @Override public <T> @Nullable InstanceFactory<T> getInstanceFactory(
+            Class<T> instanceType, String classifier, Class<InstanceFactory<T>> factoryType
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public <T> @Nullable InstanceFactory<T> getFilteredInstanceFactory(
+            Class<T> type, String classifier, FactoryFilter factoryFilter
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public <T> @NotNull List<InstanceFactory<T>> getManyInstanceFactories(
+            Class<T> type, String classifier, FactoryFilter factoryFilter
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public <T> @Nullable InstanceFactory<T> getFilteredInstanceFactory(
+            Class<T> type, String classifier, int key, FactoryFilter factoryFilter
+        ) {
+            keys.add(key);
+            return null;
+        }
+
+        @Override public <T> @NotNull List<InstanceFactory<T>> getManyInstanceFactories(
+            Class<T> type, String classifier, int key, FactoryFilter factoryFilter
+        ) {
+            keys.add(key);
+            return Collections.emptyList();
+        }
+
+        @Override public boolean hasInstanceFactories(Class<?> type, String classifier, int key) {
+            keys.add(key);
+            return true;
+        }
+    }
+}
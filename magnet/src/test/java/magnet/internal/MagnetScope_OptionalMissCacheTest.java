@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Scope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class MagnetScope_OptionalMissCacheTest {
+
+    private CountingInstanceManager instanceManager;
+    private Scope root;
+    private Scope child;
+
+    @Before
+    public void before() {
+        instanceManager = new CountingInstanceManager();
+        root = new MagnetScope(null, instanceManager);
+        child = root.createSubscope();
+    }
+
+    @Test
+    public void repeatedMiss_DoesNotQueryInstanceManager() {
+        assertThat(child.getOptional(Bound.class)).isNull();
+        assertThat(child.getOptional(Bound.class)).isNull();
+        assertThat(child.getOptional(Bound.class)).isNull();
+
+        assertThat(instanceManager.filteredCalls).isEqualTo(1);
+    }
+
+    @Test
+    public void cachedMiss_IsInvalidated_WhenScopeBinds() {
+        assertThat(child.getOptional(Bound.class)).isNull();
+
+        Bound bound = new Bound();
+        child.bind(Bound.class, bound);
+
+        assertThat(child.getOptional(Bound.class)).isSameInstanceAs(bound);
+    }
+
+    @Test
+    public void cachedMiss_IsInvalidated_WhenAncestorBinds() {
+        assertThat(child.getOptional(Bound.class)).isNull();
+
+        Bound bound = new Bound();
+        root.bind(Bound.class, bound);
+
+        assertThat(child.getOptional(Bound.class)).isSameInstanceAs(bound);
+    }
+
+    @Test
+    public void missOfClassifiedKey_DoesNotAffectOtherClassifiers() {
+        assertThat(child.getOptional(Bound.class, "classifier")).isNull();
+
+        Bound bound = new Bound();
+        root.bind(Bound.class, bound);
+
+        assertThat(child.getOptional(Bound.class)).isSameInstanceAs(bound);
+        assertThat(child.getOptional(Bound.class, "classifier")).isNull();
+    }
+
+    @Test
+    public void missOfIndexedType_IsNotCached() {
+        instanceManager.indexed = true;
+
+        assertThat(child.getOptional(Bound.class)).isNull();
+        assertThat(child.getOptional(Bound.class)).isNull();
+
+        assertThat(instanceManager.filteredCalls).isEqualTo(2);
+    }
+
+    private static class Bound {}
+
+    private static class CountingInstanceManager implements InstanceManager {
+        int filteredCalls;
+        boolean indexed;
+
+        @Override public <T> @Nullable InstanceFactory<T> getInstanceFactory(
+            Class<T> instanceType, String classifier, Class<InstanceFactory<T>> factoryType
+        ) {
+            return null;
+        }
+
+        @Override public <T> @Nullable InstanceFactory<T> getFilteredInstanceFactory(
+            Class<T> type, String classifier, FactoryFilter factoryFilter
+        ) {
+            filteredCalls++;
+            return null;
+        }
+
+        @Override public <T> @NotNull List<InstanceFactory<T>> getManyInstanceFactories(
+            Class<T> type, String classifier, FactoryFilter factoryFilter
+        ) {
+            return Collections.emptyList();
+        }
+
+        @Override public boolean hasInstanceFactories(Class<?> type, String classifier) {
+            return indexed;
+        }
+    }
+}
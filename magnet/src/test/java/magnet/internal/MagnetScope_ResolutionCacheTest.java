@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Classifier;
+import magnet.Scope;
+import magnet.Scoping;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class MagnetScope_ResolutionCacheTest {
+
+    private Scope root;
+    private Scope scope1;
+    private Scope scope2;
+    private Scope scope3;
+
+    @Before
+    public void before() {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        Map<Class, Object> index = new HashMap<>();
+        index.put(Injected.class, new Range(0, 1, Classifier.NONE));
+        instanceManager.register(new InstanceFactory[]{new InjectedFactory()}, index);
+
+        root = new MagnetScope(null, instanceManager);
+        scope1 = root.createSubscope();
+        scope2 = scope1.createSubscope();
+        scope3 = scope2.createSubscope();
+    }
+
+    @Test
+    public void cachedMiss_IsInvalidated_WhenAncestorBinds() {
+        assertThat(scope3.getOptional(Bound.class)).isNull();
+
+        Bound bound = new Bound();
+        root.bind(Bound.class, bound);
+
+        assertThat(scope3.getOptional(Bound.class)).isSameInstanceAs(bound);
+    }
+
+    @Test
+    public void cachedHit_IsInvalidated_WhenNearerAncestorBinds() {
+        Bound bound1 = new Bound();
+        root.bind(Bound.class, bound1);
+        assertThat(scope3.getSingle(Bound.class)).isSameInstanceAs(bound1);
+
+        Bound bound2 = new Bound();
+        scope2.bind(Bound.class, bound2);
+
+        assertThat(scope3.getSingle(Bound.class)).isSameInstanceAs(bound2);
+        assertThat(scope1.getSingle(Bound.class)).isSameInstanceAs(bound1);
+    }
+
+    @Test
+    public void cachedHit_IsNotAffected_BySiblingScope() {
+        Bound bound1 = new Bound();
+        root.bind(Bound.class, bound1);
+        assertThat(scope3.getSingle(Bound.class)).isSameInstanceAs(bound1);
+
+        Bound bound2 = new Bound();
+        scope1.createSubscope().bind(Bound.class, bound2);
+
+        assertThat(scope3.getSingle(Bound.class)).isSameInstanceAs(bound1);
+    }
+
+    @Test
+    public void injectedTopMostInstance_IsFoundFromDeepScopes() {
+        Injected injected = scope3.getSingle(Injected.class);
+
+        assertThat(scope3.getSingle(Injected.class)).isSameInstanceAs(injected);
+        assertThat(scope1.createSubscope().getSingle(Injected.class)).isSameInstanceAs(injected);
+        assertThat(root.getSingle(Injected.class)).isSameInstanceAs(injected);
+    }
+
+    private static class Bound {}
+
+    private static class Injected {}
+
+    private static class InjectedFactory extends InstanceFactory<Injected> {
+        @Override public Injected create(Scope scope) { return new Injected(); }
+        @Override public Scoping getScoping() { return Scoping.TOPMOST; }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Classifier;
+import magnet.Scope;
+import magnet.SelectorFilter;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class MagnetScope_SelectorCacheTest {
+
+    private CountingSelectorFilter selectorFilter;
+    private Scope scope;
+
+    @Before
+    public void before() {
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        Map<Class, Object> index = new HashMap<>();
+        index.put(Interface.class, new Range(0, 1, Classifier.NONE));
+        instanceManager.register(new InstanceFactory[]{new SelectedFactory()}, index);
+
+        selectorFilter = new CountingSelectorFilter();
+        scope = new MagnetScope(null, instanceManager);
+        scope.bind(SelectorFilter.class, selectorFilter, "test");
+    }
+
+    @Test
+    public void selectorResult_IsCached() {
+        // given
+        selectorFilter.result = true;
+
+        // when
+        scope.getOptional(Interface.class);
+        scope.getOptional(Interface.class);
+        scope.getOptional(Interface.class);
+
+        // then
+        assertThat(selectorFilter.filterCalls).isEqualTo(1);
+    }
+
+    @Test
+    public void negativeSelectorResult_IsCached() {
+        // given
+        selectorFilter.result = false;
+
+        // when
+        Interface object1 = scope.getOptional(Interface.class);
+        Interface object2 = scope.getOptional(Interface.class);
+
+        // then
+        assertThat(object1).isNull();
+        assertThat(object2).isNull();
+        assertThat(selectorFilter.filterCalls).isEqualTo(1);
+    }
+
+    @Test
+    public void selectorResult_IsRecomputed_WhenFilterInvalidated() {
+        // given
+        selectorFilter.result = false;
+        assertThat(scope.getOptional(Interface.class)).isNull();
+
+        // when
+        selectorFilter.result = true;
+        selectorFilter.changed();
+
+        // then
+        assertThat(scope.getOptional(Interface.class)).isNotNull();
+        assertThat(selectorFilter.filterCalls).isEqualTo(2);
+    }
+
+    @Test
+    public void selectorResult_IsRecomputed_WhenSubscopeBindsFilter() {
+        // given
+        selectorFilter.result = false;
+        Scope subscope = scope.createSubscope();
+        assertThat(subscope.getOptional(Interface.class)).isNull();
+
+        // when
+        CountingSelectorFilter subscopeFilter = new CountingSelectorFilter();
+        subscopeFilter.result = true;
+        subscope.bind(SelectorFilter.class, subscopeFilter, "test");
+
+        // then
+        assertThat(subscope.getOptional(Interface.class)).isNotNull();
+        assertThat(subscopeFilter.filterCalls).isEqualTo(1);
+    }
+
+    interface Interface {}
+
+    static class Implementation implements Interface {}
+
+    static class SelectedFactory extends InstanceFactory<Interface> {
+        private static final String[] SELECTOR = new String[]{"test", "value", "==", "true"};
+
+        @Override public Interface create(Scope scope) { return new Implementation(); }
+        @Override public String[] getSelector() { return SELECTOR; }
+    }
+
+    static class CountingSelectorFilter extends SelectorFilter {
+        int filterCalls;
+        boolean result;
+
+        @Override public boolean filter(@NotNull String[] selector) {
+            filterCalls++;
+            return result;
+        }
+
+        void changed() { invalidate(); }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Scope;
+import magnet.Selector;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class RangeFactoriesTest {
+
+    private final InstanceFactory plain1 = new Factory(null);
+    private final InstanceFactory plain2 = new Factory(null);
+    private final InstanceFactory selected1 = new Factory(Selector.clause("test", "one", Selector.EQUAL, true));
+    private final InstanceFactory selected2 = new Factory(Selector.clause("test", "two", Selector.EQUAL, true));
+
+    @Test
+    public void factoriesWithoutSelectors_AreSameViewOfRange() {
+        // given
+        InstanceFactory[] factories = {selected1, plain1, plain2, selected2};
+        RangeFactories rangeFactories = new RangeFactories(factories, 1, 2);
+
+        // when
+        List<InstanceFactory<Object>> list1 = rangeFactories.get(new AcceptingFilter(true));
+        List<InstanceFactory<Object>> list2 = rangeFactories.get(new AcceptingFilter(true));
+
+        // then
+        assertThat(list1).containsExactly(plain1, plain2).inOrder();
+        assertThat(list2).isSameInstanceAs(list1);
+    }
+
+    @Test
+    public void filteredFactories_AreCachedForSameAcceptedFactories() {
+        // given
+        InstanceFactory[] factories = {selected1, selected2};
+        RangeFactories rangeFactories = new RangeFactories(factories, 0, 2);
+
+        // when
+        List<InstanceFactory<Object>> list1 = rangeFactories.get(new AcceptingFilter(true));
+        List<InstanceFactory<Object>> list2 = rangeFactories.get(new AcceptingFilter(true));
+
+        // then
+        assertThat(list1).containsExactly(selected1, selected2).inOrder();
+        assertThat(list2).isSameInstanceAs(list1);
+    }
+
+    @Test
+    public void filteredFactories_AreRecomputedWhenAcceptedFactoriesChange() {
+        // given
+        InstanceFactory[] factories = {selected1, selected2};
+        RangeFactories rangeFactories = new RangeFactories(factories, 0, 2);
+        rangeFactories.get(new AcceptingFilter(true));
+
+        // when
+        List<InstanceFactory<Object>> list = rangeFactories.get(new AcceptingFilter(false));
+
+        // then
+        assertThat(list).isEmpty();
+    }
+
+    private static class Factory extends InstanceFactory<Object> {
+        private final Selector selector;
+
+        Factory(Selector selector) { this.selector = selector; }
+
+        @Override public Object create(Scope scope) { return new Object(); }
+        @Override public Selector getCompiledSelector() { return selector; }
+    }
+
+    private static class AcceptingFilter implements FactoryFilter {
+        private final boolean accept;
+
+        AcceptingFilter(boolean accept) { this.accept = accept; }
+
+        @Override public boolean filter(InstanceFactory factory) { return accept; }
+    }
+}
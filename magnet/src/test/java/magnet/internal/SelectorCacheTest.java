@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.SelectorFilter;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class SelectorCacheTest {
+
+    private final SelectorFilter selectorFilter = new SelectorFilter() {
+        @Override public boolean filter(@NotNull String[] selector) { return true; }
+    };
+
+    @Test
+    public void allEntries_AreFoundBelowMaxCapacity() {
+        // given
+        SelectorCache cache = new SelectorCache();
+        Object[] selectors = new Object[100];
+
+        // when
+        for (int i = 0; i < selectors.length; i++) {
+            selectors[i] = new Object();
+            cache.put(selectors[i], selectorFilter, 0, 0, i % 2 == 0);
+        }
+
+        // then
+        for (int i = 0; i < selectors.length; i++) {
+            SelectorCache.Entry entry = cache.get(selectors[i]);
+            assertThat(entry).isNotNull();
+            assertThat(entry.result).isEqualTo(i % 2 == 0);
+        }
+    }
+
+    @Test
+    public void entries_AreReplacedBeyondMaxCapacity() {
+        // given
+        SelectorCache cache = new SelectorCache();
+        Object selector = new Object();
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            cache.put(new Object(), selectorFilter, 0, 0, true);
+        }
+        cache.put(selector, selectorFilter, 0, 0, false);
+
+        // then
+        SelectorCache.Entry entry = cache.get(selector);
+        assertThat(entry).isNotNull();
+        assertThat(entry.result).isFalse();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2018-2019 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal;
+
+import magnet.Classifier;
+import magnet.Scope;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(JUnit4.class)
+public class SiblingsTest {
+
+    @Test
+    public void siblings_AreResolvedOnce() {
+        // given
+        Interface1Factory factory1 = new Interface1Factory();
+        Interface2Factory factory2 = new Interface2Factory();
+        MagnetInstanceManager instanceManager = createInstanceManager(factory1, factory2);
+
+        // when
+        Siblings siblings1 = Siblings.of(factory1, Classifier.NONE, instanceManager);
+        Siblings siblings2 = Siblings.of(factory1, Classifier.NONE, instanceManager);
+
+        // then
+        assertThat(siblings2).isSameInstanceAs(siblings1);
+        assertThat(factory1.siblingTypesCalls).isEqualTo(1);
+        assertThat(siblings1.types[0]).isEqualTo(Interface2.class);
+        assertThat(siblings1.keys[0]).isEqualTo(MagnetScope.key(Interface2.class, Classifier.NONE));
+        assertThat(siblings1.factories[0]).isSameInstanceAs(factory2);
+    }
+
+    @Test
+    public void factoryWithoutSiblingTypes_HasNoSiblings() {
+        // given
+        Interface2Factory factory2 = new Interface2Factory();
+        MagnetInstanceManager instanceManager = createInstanceManager(new Interface1Factory(), factory2);
+
+        // when
+        Siblings siblings = Siblings.of(factory2, Classifier.NONE, instanceManager);
+
+        // then
+        assertThat(siblings).isNull();
+    }
+
+    private static MagnetInstanceManager createInstanceManager(InstanceFactory... factories) {
+        Map<Class, Object> index = new HashMap<>();
+        index.put(Interface1.class, new Range(0, 1, Classifier.NONE));
+        index.put(Interface2.class, new Range(1, 1, Classifier.NONE));
+        MagnetInstanceManager instanceManager = new MagnetInstanceManager();
+        instanceManager.register(factories, index);
+        return instanceManager;
+    }
+
+    interface Interface1 {}
+
+    interface Interface2 {}
+
+    static class Implementation implements Interface1, Interface2 {}
+
+    static class Interface1Factory extends InstanceFactory<Interface1> {
+        int siblingTypesCalls;
+
+        @Override public Interface1 create(Scope scope) { return new Implementation(); }
+        @Override public Class[] getSiblingTypes() {
+            siblingTypesCalls++;
+            return new Class[]{Interface2.class, Interface2Factory.class};
+        }
+    }
+
+    static class Interface2Factory extends InstanceFactory<Interface2> {
+        @Override public Interface2 create(Scope scope) { return new Implementation(); }
+    }
+}
@@ -118,8 +118,8 @@ public class VisitInstancesTest {
 
         assertThat(visitor.visited).containsExactly(
             new OnEnterScope(scopeA.scope, null),
+            new OnInstance(INJECTED, InjectedTopMost.class, injectedTopMost, Classifier.NONE, Scoping.TOPMOST),
             new OnInstance(INJECTED, InjectedTopMost.class, injectedTopMost, classifierA, Scoping.TOPMOST),
-            new OnInstance(INJECTED, InjectedTopMost.class, injectedTopMost, classifierB, Scoping.TOPMOST),
             new OnExitScope(scopeA.scope)
         ).inOrder();
     }
@@ -18,6 +18,7 @@ package magnetx
 
 import android.os.Build
 import magnet.Instance
+import magnet.Selector
 import magnet.SelectorFilter
 
 @Instance(
@@ -26,6 +27,23 @@ import magnet.SelectorFilter
 )
 internal class AndroidSelectorFilter : SelectorFilter() {
 
+    override fun filter(selector: Selector): Boolean {
+        check(selector.key == "api") { "Unexpected selector key ${selector.key}. $VERSION_ERROR" }
+
+        val api = Build.VERSION.SDK_INT
+        return when (selector.operator) {
+            Selector.GREATER_OR_EQUAL -> api >= selector.intOperand
+            Selector.LESS_OR_EQUAL -> api <= selector.intOperand
+            Selector.GREATER -> api > selector.intOperand
+            Selector.LESS -> api < selector.intOperand
+            Selector.EQUAL -> api == selector.intOperand
+            Selector.NOT_EQUAL -> api != selector.intOperand
+            Selector.IN -> api in selector.intOperand..selector.intOperand2
+            Selector.NOT_IN -> api !in selector.intOperand..selector.intOperand2
+            else -> error("Unsupported operator in $selector. $VERSION_ERROR")
+        }
+    }
+
     override fun filter(selector: Array<out String>): Boolean {
         check(selector.size >= 4) { "Unexpected selector length: ${selector.size}. $VERSION_ERROR" }
         check(selector[1] == "api") { "Unexpected selector key ${selector[1]}. $VERSION_ERROR" }
@@ -19,6 +19,7 @@ package magnetx
 import android.content.SharedPreferences
 import magnet.Classifier
 import magnet.Instance
+import magnet.Selector
 import magnet.SelectorFilter
 
 const val FEATURE_SELECTOR = "features"
@@ -28,6 +29,12 @@ const val FEATURE_SELECTOR = "features"
  * provided shared preferences. Add the library containing this class to your
  * app module to enable feature selector.
  *
+ * Feature values are read once into a snapshot, which is updated whenever
+ * preferences change. Compiled selectors are mapped to the index of their feature
+ * in the snapshot once, later filtering only reads snapshot arrays. A change of
+ * a feature invalidates cached results of the compiled selectors depending on
+ * that feature only. Cached results of selectors provided as string arrays are
+ * invalidated on every change.
  *
  * ### Scope dependencies
  * `@Classifier(FEATURE_SELECTOR) preferences: SharedPreferences`
@@ -43,36 +50,181 @@ internal class FeaturesSelectorFilter(
     @Classifier(FEATURE_SELECTOR) private val preferences: SharedPreferences
 ) : SelectorFilter() {
 
+    @Volatile
+    private var features = Features.EMPTY.update(preferences.all, complete = true)
+
+    @Volatile
+    private var selectorIds = SelectorIds.EMPTY
+
+    /* Preferences keep listeners weakly, this reference keeps it registered. */
+    private val changeListener = SharedPreferences.OnSharedPreferenceChangeListener { _, key ->
+        onPreferenceChanged(key)
+    }
+
+    init {
+        preferences.registerOnSharedPreferenceChangeListener(changeListener)
+    }
+
+    override fun filter(selector: Selector): Boolean {
+        val id = featureId(selector)
+        val value = features.value(id)
+        return when (selector.operator) {
+            Selector.EQUAL -> value == selector.booleanOperand
+            Selector.NOT_EQUAL -> value != selector.booleanOperand
+            else -> error("Supported operators == and !=, actual: $selector")
+        }
+    }
+
     override fun filter(selector: Array<String>): Boolean {
         check(selector.size == 4) { "Expected selector length 4, actual: ${selector.size}." }
 
-        val operator = when (selector[2]) {
-            "==" -> Operator.Equal
-            "!=" -> Operator.NotEqual
+        val value = features.value(selector[1])
+        return when (selector[2]) {
+            "==" -> value == selector[3].toBoolean()
+            "!=" -> value != selector[3].toBoolean()
             else -> error("Supported operators == and !=, actual: ${selector[2]}")
         }
+    }
+
+    override fun getGeneration(selector: Selector): Int {
+        val id = featureId(selector)
+        return features.generation(id)
+    }
+
+    /* The id must be read before the snapshot, snapshots published after the id contain it. */
+    private fun featureId(selector: Selector): Int {
+        val id = selectorIds[selector]
+        return if (id > -1) id else registerSelector(selector)
+    }
 
-        return operator.apply(
-            key = selector[1],
-            operand = selector[3].toBoolean(),
-            preferences = preferences
-        )
+    @Synchronized
+    private fun registerSelector(selector: Selector): Int {
+        val registeredId = selectorIds[selector]
+        if (registeredId > -1) return registeredId
+
+        features = features.register(selector.key)
+        val id = features.id(selector.key)
+        selectorIds = selectorIds.plus(selector, id)
+        return id
+    }
+
+    @Synchronized
+    private fun onPreferenceChanged(key: String?) {
+        val values = preferences.all
+        features = if (key == null) {
+            features.update(values, complete = true)
+        } else {
+            features.update(mapOf(key to values[key]), complete = false)
+        }
+        /* Results of selectors provided as string arrays are cached per filter, not per feature. */
+        invalidate()
     }
-  
 }
 
-private sealed class Operator {
+/**
+ * Immutable snapshot of feature values. Features are numbered in order of their
+ * appearance, values and generations are stored in arrays indexed by those numbers.
+ */
+private class Features(
+    private val ids: Map<String, Int>,
+    private val values: BooleanArray,
+    private val generations: IntArray
+) {
+
+    fun id(feature: String): Int = ids[feature] ?: -1
+
+    fun value(id: Int): Boolean = values[id]
 
-    abstract fun apply(key: String, operand: Boolean, preferences: SharedPreferences): Boolean
+    fun generation(id: Int): Int = generations[id]
 
-    object Equal : Operator() {
-        override fun apply(key: String, operand: Boolean, preferences: SharedPreferences) =
-            preferences.getBoolean(key, false) == operand
+    fun value(feature: String): Boolean {
+        val id = ids[feature] ?: return false
+        return values[id]
     }
 
-    object NotEqual : Operator() {
-        override fun apply(key: String, operand: Boolean, preferences: SharedPreferences) =
-            preferences.getBoolean(key, false) != operand
+    /** Returns snapshot containing given feature. Features added this way are false. */
+    fun register(feature: String): Features {
+        if (feature in ids) return this
+        val newIds = HashMap(ids)
+        newIds[feature] = newIds.size
+        return Features(newIds, values.copyOf(newIds.size), generations.copyOf(newIds.size))
     }
 
+    /**
+     * Returns snapshot with given values applied. If [complete] is true, features
+     * missing in [changes] are considered to be removed and get value false.
+     */
+    fun update(changes: Map<String, *>, complete: Boolean): Features {
+        val newIds = HashMap(ids)
+        for (feature in changes.keys) {
+            if (feature !in newIds) newIds[feature] = newIds.size
+        }
+        val newValues = values.copyOf(newIds.size)
+        val newGenerations = generations.copyOf(newIds.size)
+        for ((feature, id) in newIds) {
+            if (!complete && feature !in changes) continue
+            val value = changes[feature] as? Boolean ?: false
+            if (id >= values.size || values[id] != value) {
+                newValues[id] = value
+                newGenerations[id]++
+            }
+        }
+        return Features(newIds, newValues, newGenerations)
+    }
+
+    companion object {
+        val EMPTY = Features(emptyMap(), BooleanArray(0), IntArray(0))
+    }
+}
+
+/**
+ * Immutable open-addressing map of compiled selectors to feature ids. Selectors are
+ * compared by identity, because generated factories keep them in constants.
+ */
+private class SelectorIds(
+    private val selectors: Array<Selector?>,
+    private val ids: IntArray,
+    private val size: Int
+) {
+
+    operator fun get(selector: Selector): Int {
+        val mask = selectors.size - 1
+        var position = hash(selector) and mask
+        while (true) {
+            val candidate = selectors[position] ?: return -1
+            if (candidate === selector) return ids[position]
+            position = (position + 1) and mask
+        }
+    }
+
+    fun plus(selector: Selector, id: Int): SelectorIds {
+        val capacity = if (size + 1 > selectors.size shr 1) selectors.size shl 1 else selectors.size
+        val newSelectors = arrayOfNulls<Selector>(capacity)
+        val newIds = IntArray(capacity)
+        for (position in selectors.indices) {
+            val candidate = selectors[position] ?: continue
+            put(newSelectors, newIds, candidate, ids[position])
+        }
+        put(newSelectors, newIds, selector, id)
+        return SelectorIds(newSelectors, newIds, size + 1)
+    }
+
+    companion object {
+        val EMPTY = SelectorIds(arrayOfNulls(8), IntArray(8), 0)
+
+        private fun hash(selector: Selector): Int {
+            val hash = System.identityHashCode(selector)
+            return hash xor (hash ushr 16)
+        }
+
+        private fun put(selectors: Array<Selector?>, ids: IntArray, selector: Selector, id: Int) {
+            val mask = selectors.size - 1
+            var position = hash(selector) and mask
+            while (selectors[position] != null) {
+                position = (position + 1) and mask
+            }
+            selectors[position] = selector
+            ids[position] = id
+        }
+    }
 }
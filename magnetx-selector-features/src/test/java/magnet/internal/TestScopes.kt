@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2018 Sergej Shafarenka, www.halfbit.de
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package magnet.internal
+
+import magnet.Classifier
+import magnet.Scope
+
+/** Creates root scope providing given type by given factories, without a generated registry. */
+fun <T> createRootScope(type: Class<T>, vararg factories: InstanceFactory<T>): Scope {
+    val instanceManager = MagnetInstanceManager()
+    instanceManager.register(
+        arrayOf<InstanceFactory<*>>(*factories),
+        mapOf<Class<*>, Any>(type to Range(0, factories.size, Classifier.NONE))
+    )
+    return InternalFactory.createRootScope(instanceManager)
+}
@@ -0,0 +1,138 @@
+package magnetx
+
+import com.google.common.truth.Truth.assertThat
+import magnet.Scope
+import magnet.Scoping
+import magnet.Selector
+import magnet.SelectorFilter
+import magnet.internal.InstanceFactory
+import magnet.internal.createRootScope
+import org.junit.Test
+
+class FeaturesSelectorFilterTest {
+
+    private val preferences = InMemorySharedPreferences()
+    private val newPipeline = Selector.clause(FEATURE_SELECTOR, "newPipeline", Selector.EQUAL, true)
+    private val legacyUi = Selector.clause(FEATURE_SELECTOR, "legacyUi", Selector.NOT_EQUAL, true)
+
+    @Test
+    fun `Filter evaluates snapshot values`() {
+        preferences.edit().putBoolean("newPipeline", true).putBoolean("legacyUi", true).commit()
+        val underTest = FeaturesSelectorFilter(preferences)
+
+        assertThat(underTest.filter(newPipeline)).isTrue()
+        assertThat(underTest.filter(legacyUi)).isFalse()
+    }
+
+    @Test
+    fun `Missing feature is false`() {
+        val underTest = FeaturesSelectorFilter(preferences)
+
+        assertThat(underTest.filter(newPipeline)).isFalse()
+        assertThat(underTest.filter(legacyUi)).isTrue()
+    }
+
+    @Test
+    fun `Feature change updates value and its generation only`() {
+        preferences.edit().putBoolean("newPipeline", false).putBoolean("legacyUi", true).commit()
+        val underTest = FeaturesSelectorFilter(preferences)
+        val newPipelineGeneration = underTest.getGeneration(newPipeline)
+        val legacyUiGeneration = underTest.getGeneration(legacyUi)
+
+        preferences.edit().putBoolean("newPipeline", true).commit()
+
+        assertThat(underTest.filter(newPipeline)).isTrue()
+        assertThat(underTest.getGeneration(newPipeline)).isNotEqualTo(newPipelineGeneration)
+        assertThat(underTest.getGeneration(legacyUi)).isEqualTo(legacyUiGeneration)
+    }
+
+    @Test
+    fun `Unchanged value keeps generation`() {
+        preferences.edit().putBoolean("newPipeline", true).commit()
+        val underTest = FeaturesSelectorFilter(preferences)
+        val generation = underTest.getGeneration(newPipeline)
+
+        preferences.edit().putBoolean("newPipeline", true).commit()
+
+        assertThat(underTest.getGeneration(newPipeline)).isEqualTo(generation)
+    }
+
+    @Test
+    fun `Feature added later changes generation`() {
+        val underTest = FeaturesSelectorFilter(preferences)
+        val generation = underTest.getGeneration(newPipeline)
+
+        preferences.edit().putBoolean("newPipeline", true).commit()
+
+        assertThat(underTest.filter(newPipeline)).isTrue()
+        assertThat(underTest.getGeneration(newPipeline)).isNotEqualTo(generation)
+    }
+
+    @Test
+    fun `Selectors of one feature are resolved to the same feature`() {
+        val underTest = FeaturesSelectorFilter(preferences)
+        val newPipelineOff = Selector.clause(FEATURE_SELECTOR, "newPipeline", Selector.NOT_EQUAL, true)
+        val generation = underTest.getGeneration(newPipelineOff)
+
+        assertThat(underTest.filter(newPipeline)).isFalse()
+        preferences.edit().putBoolean("newPipeline", true).commit()
+
+        assertThat(underTest.filter(newPipeline)).isTrue()
+        assertThat(underTest.filter(newPipelineOff)).isFalse()
+        assertThat(underTest.getGeneration(newPipelineOff)).isNotEqualTo(generation)
+        assertThat(underTest.getGeneration(newPipeline)).isEqualTo(underTest.getGeneration(newPipelineOff))
+    }
+
+    @Test
+    fun `Many selectors are resolved to their features`() {
+        preferences.edit().putBoolean("feature7", true).commit()
+        val underTest = FeaturesSelectorFilter(preferences)
+        val selectors = (0 until 20).map { Selector.clause(FEATURE_SELECTOR, "feature$it", Selector.EQUAL, true) }
+
+        val values = selectors.map { underTest.filter(it) }
+
+        assertThat(values.indexOf(true)).isEqualTo(7)
+        assertThat(values.count { it }).isEqualTo(1)
+    }
+
+    @Test
+    fun `Clearing preferences resets features`() {
+        preferences.edit().putBoolean("newPipeline", true).commit()
+        val underTest = FeaturesSelectorFilter(preferences)
+        val generation = underTest.getGeneration(newPipeline)
+
+        preferences.edit().clear().commit()
+
+        assertThat(underTest.filter(newPipeline)).isFalse()
+        assertThat(underTest.getGeneration(newPipeline)).isNotEqualTo(generation)
+    }
+
+    @Test
+    fun `Legacy selector is evaluated from snapshot`() {
+        preferences.edit().putBoolean("newPipeline", true).commit()
+        val underTest = FeaturesSelectorFilter(preferences)
+
+        assertThat(underTest.filter(arrayOf(FEATURE_SELECTOR, "newPipeline", "==", "true"))).isTrue()
+        assertThat(underTest.filter(arrayOf(FEATURE_SELECTOR, "newPipeline", "!=", "true"))).isFalse()
+    }
+
+    @Test
+    fun `Legacy selector is evaluated again after feature change`() {
+        preferences.edit().putBoolean("newPipeline", false).commit()
+        val scope = createRootScope(Pipeline::class.java, LegacyPipelineFactory())
+            .bind(SelectorFilter::class.java, FeaturesSelectorFilter(preferences), FEATURE_SELECTOR)
+        assertThat(scope.getOptional(Pipeline::class.java)).isNull()
+
+        preferences.edit().putBoolean("newPipeline", true).commit()
+
+        assertThat(scope.getOptional(Pipeline::class.java)).isNotNull()
+    }
+}
+
+private class Pipeline
+
+private class LegacyPipelineFactory : InstanceFactory<Pipeline>() {
+    override fun create(scope: Scope): Pipeline = Pipeline()
+    override fun getScoping(): Scoping = Scoping.UNSCOPED
+    override fun getSelector(): Array<String> = arrayOf(FEATURE_SELECTOR, "newPipeline", "==", "true")
+}
@@ -0,0 +1,95 @@
+package magnetx
+
+import android.content.SharedPreferences
+
+/** Minimal in-memory implementation of [SharedPreferences] for tests. */
+class InMemorySharedPreferences : SharedPreferences {
+
+    private val values = mutableMapOf<String, Any?>()
+    private val listeners = mutableListOf<SharedPreferences.OnSharedPreferenceChangeListener>()
+
+    override fun getAll(): Map<String, *> = HashMap(values)
+    override fun getString(key: String, defValue: String?): String? = values[key] as String? ?: defValue
+    @Suppress("UNCHECKED_CAST")
+    override fun getStringSet(key: String, defValues: Set<String>?): Set<String>? =
+        values[key] as Set<String>? ?: defValues
+    override fun getInt(key: String, defValue: Int): Int = values[key] as Int? ?: defValue
+    override fun getLong(key: String, defValue: Long): Long = values[key] as Long? ?: defValue
+    override fun getFloat(key: String, defValue: Float): Float = values[key] as Float? ?: defValue
+    override fun getBoolean(key: String, defValue: Boolean): Boolean = values[key] as Boolean? ?: defValue
+    override fun contains(key: String): Boolean = values.containsKey(key)
+    override fun edit(): SharedPreferences.Editor = Editor()
+
+    override fun registerOnSharedPreferenceChangeListener(
+        listener: SharedPreferences.OnSharedPreferenceChangeListener
+    ) {
+        listeners.add(listener)
+    }
+
+    override fun unregisterOnSharedPreferenceChangeListener(
+        listener: SharedPreferences.OnSharedPreferenceChangeListener
+    ) {
+        listeners.remove(listener)
+    }
+
+    private inner class Editor : SharedPreferences.Editor {
+        private val changes = mutableMapOf<String, Any?>()
+        private var clear = false
+
+        override fun putString(key: String, value: String?): SharedPreferences.Editor {
+            changes[key] = value
+            return this
+        }
+
+        override fun putStringSet(key: String, values: Set<String>?): SharedPreferences.Editor {
+            changes[key] = values
+            return this
+        }
+
+        override fun putInt(key: String, value: Int): SharedPreferences.Editor {
+            changes[key] = value
+            return this
+        }
+
+        override fun putLong(key: String, value: Long): SharedPreferences.Editor {
+            changes[key] = value
+            return this
+        }
+
+        override fun putFloat(key: String, value: Float): SharedPreferences.Editor {
+            changes[key] = value
+            return this
+        }
+
+        override fun putBoolean(key: String, value: Boolean): SharedPreferences.Editor {
+            changes[key] = value
+            return this
+        }
+
+        override fun remove(key: String): SharedPreferences.Editor {
+            changes[key] = null
+            return this
+        }
+
+        override fun clear(): SharedPreferences.Editor {
+            clear = true
+            return this
+        }
+
+        override fun commit(): Boolean {
+            if (clear) {
+                values.clear()
+                listeners.toList().forEach { it.onSharedPreferenceChanged(this@InMemorySharedPreferences, null) }
+            }
+            for ((key, value) in changes) {
+                if (value == null) values.remove(key) else values[key] = value
+                listeners.toList().forEach { it.onSharedPreferenceChanged(this@InMemorySharedPreferences, key) }
+            }
+            return true
+        }
+
+        override fun apply() {
+            commit()
+        }
+    }
+}